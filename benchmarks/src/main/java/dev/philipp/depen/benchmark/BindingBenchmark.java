@@ -0,0 +1,93 @@
+package dev.philipp.depen.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.InjectionToken;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.TypeLiteral;
+
+/**
+ * Measures a single lookup for every kind of binding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+
+	private static final InjectionToken<BigDecimal> TOKEN = InjectionToken.create(BigDecimal.class, "BENCHMARK");
+	
+	private static final TypeLiteral<List<BigDecimal>> LITERAL = new TypeLiteral<List<BigDecimal>>() {};
+	
+	private static final InjectionToken<List<BigDecimal>> GENERIC = InjectionToken.of(LITERAL);
+	
+	private Injector injector;
+	
+	@Setup
+	public void setup() {
+		this.injector = new Injector();
+		this.injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		this.injector.forToken(TOKEN).provideValue(BigDecimal.ONE);
+		this.injector.forToken(GENERIC).provideValue(Collections.singletonList(BigDecimal.ONE));
+		this.injector.forClass(Singleton.class).provideInstanceOf(Singleton.class);
+		this.injector.provide(Prototype.class);
+		this.injector.forClass(StringBuilder.class).provideFactory(i -> new StringBuilder());
+	}
+	
+	@Benchmark
+	public BigDecimal value() {
+		return this.injector.inject(BigDecimal.class);
+	}
+	
+	@Benchmark
+	public BigDecimal token() {
+		return this.injector.inject(TOKEN);
+	}
+	
+	@Benchmark
+	public List<BigDecimal> generic() {
+		return this.injector.inject(GENERIC);
+	}
+	
+	@Benchmark
+	public List<BigDecimal> genericLiteral() {
+		return this.injector.inject(LITERAL);
+	}
+	
+	@Benchmark
+	public Singleton singleton() {
+		return this.injector.inject(Singleton.class);
+	}
+	
+	@Benchmark
+	public Prototype prototype() {
+		return this.injector.inject(Prototype.class);
+	}
+	
+	@Benchmark
+	public StringBuilder factory() {
+		return this.injector.inject(StringBuilder.class);
+	}
+	
+	public static class Singleton {
+	}
+	
+	public static class Prototype {
+	}
+}
@@ -0,0 +1,133 @@
+package dev.philipp.depen.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.Injector;
+
+/**
+ * Measures the start up of an application: a fresh JVM provides and injects {@value #CLASSES} singletons of classes it
+ * has never planned before, with constructor parameters, an injected field and a {@code @PostConstruct} method each.
+ * <p>
+ * Every fork is a new JVM that measures a single run. The classes are generated and compiled once into the
+ * temporary directory and loaded before the measurement, so class loading is not part of the result.
+ * </p>
+ * <ul>
+ *     <li>{@code default}: the accessors as configured by the library</li>
+ *     <li>{@code reflection}: with {@code -Ddev.philipp.depen.reflection=true}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ColdStartBenchmark {
+
+	static final int CLASSES = 300;
+
+	private static final Path DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"), "depen-cold-start");
+
+	@Param({"default", "reflection"})
+	public String mode;
+
+	private List<Class<?>> classes;
+
+	@Setup
+	public void setup() throws Exception {
+		compile();
+		if (this.mode.equals("reflection")) {
+			//read when the first plan is built, which is after the setup
+			System.setProperty("dev.philipp.depen.reflection", "true");
+		}
+		this.classes = load();
+	}
+
+	@Benchmark
+	public Injector startUp() {
+		Injector injector = new Injector();
+		for (Class<?> clazz : this.classes) {
+			provideSingleton(injector, clazz);
+		}
+		for (Class<?> clazz : this.classes) {
+			injector.inject(clazz);
+		}
+		return injector;
+	}
+
+	private static <T> void provideSingleton(Injector injector, Class<T> clazz) {
+		injector.forClass(clazz).provideInstanceOf(clazz);
+	}
+
+	private static List<Class<?>> load() throws Exception {
+		URLClassLoader loader = new URLClassLoader(new URL[] {DIRECTORY.toUri().toURL()}, ColdStartBenchmark.class.getClassLoader());
+		List<Class<?>> classes = new ArrayList<>();
+		for (int i = 0; i < CLASSES; i++) {
+			classes.add(Class.forName("coldstart.Service" + i, false, loader));
+		}
+		return classes;
+	}
+
+	/**
+	 * Generates the classes, every one depends on up to two earlier ones through its constructor and on one through a
+	 * field.
+	 */
+	private static synchronized void compile() throws IOException {
+		if (Files.exists(DIRECTORY.resolve("coldstart/Service" + (CLASSES - 1) + ".class"))) {
+			return;
+		}
+		Path sources = Files.createDirectories(DIRECTORY.resolve("coldstart"));
+		List<String> arguments = new ArrayList<>();
+		arguments.add("-d");
+		arguments.add(DIRECTORY.toString());
+		arguments.add("-cp");
+		arguments.add(System.getProperty("java.class.path"));
+		for (int i = 0; i < CLASSES; i++) {
+			Path source = sources.resolve("Service" + i + ".java");
+			try (Writer writer = Files.newBufferedWriter(source)) {
+				writer.write("package coldstart;\n");
+				writer.write("public class Service" + i + " {\n");
+				if (i > 0) {
+					writer.write("    @dev.philipp.depen.Inject Service" + (i - 1) / 2 + " field;\n");
+				}
+				writer.write("    boolean started;\n");
+				if (i > 1) {
+					writer.write("    public Service" + i + "(Service" + (i - 1) + " first, Service" + (i - 2) + " second) {}\n");
+				} else {
+					writer.write("    public Service" + i + "() {}\n");
+				}
+				writer.write("    @dev.philipp.depen.PostConstruct void start() { this.started = true; }\n");
+				writer.write("}\n");
+			}
+			arguments.add(source.toString());
+		}
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+			throw new IllegalStateException("The generated classes do not compile");
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package dev.philipp.depen.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+
+/**
+ * Measures singleton lookups from several threads sharing one Injector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ConcurrentSingletonBenchmark {
+
+	private Injector injector;
+	
+	@Setup
+	public void setup() {
+		this.injector = new Injector();
+		this.injector.forClass(Singleton.class).provideInstanceOf(Singleton.class);
+		this.injector.forClass(DependentSingleton.class).provideInstanceOf(DependentSingleton.class);
+		this.injector.provide(Handler.class);
+	}
+	
+	@Benchmark
+	public Singleton singleton() {
+		return this.injector.inject(Singleton.class);
+	}
+	
+	@Benchmark
+	public Handler prototypeWithSingletons() {
+		return this.injector.inject(Handler.class);
+	}
+	
+	public static class Singleton {
+	}
+	
+	public static class DependentSingleton {
+		@Inject Singleton singleton;
+	}
+	
+	public static class Handler {
+		@Inject Singleton singleton;
+		@Inject DependentSingleton dependentSingleton;
+	}
+}
@@ -0,0 +1,166 @@
+package dev.philipp.depen.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.Provide;
+
+/**
+ * Measures whole object graphs: a deep constructor chain, a class with many injected fields and
+ * a {@link Provide} graph whose children point back to their parent, interpreted and after {@link Injector#compile()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+	@Param({"false", "true"})
+	public boolean compiled;
+	
+	private Injector injector;
+	
+	@Setup
+	public void setup() {
+		this.injector = new Injector();
+		this.injector.provide(Chain0.class);
+		this.injector.provide(Chain1.class);
+		this.injector.provide(Chain2.class);
+		this.injector.provide(Chain3.class);
+		this.injector.provide(Chain4.class);
+		this.injector.provide(Chain5.class);
+		this.injector.provide(Chain6.class);
+		this.injector.provide(Chain7.class);
+		this.injector.provide(Chain8.class);
+		this.injector.provide(Chain9.class);
+		this.injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		this.injector.forClass(String.class).provideValue("value");
+		this.injector.forClass(Integer.class).provideValue(42);
+		this.injector.forClass(Singleton.class).provideInstanceOf(Singleton.class);
+		this.injector.provide(Wide.class);
+		this.injector.provide(Parent.class);
+		if (this.compiled) {
+			this.injector.compile();
+		}
+	}
+	
+	@Benchmark
+	public Chain9 deepConstructorChain() {
+		return this.injector.inject(Chain9.class);
+	}
+	
+	@Benchmark
+	public Wide wideFieldInjection() {
+		return this.injector.inject(Wide.class);
+	}
+	
+	@Benchmark
+	public Parent provideGraph() {
+		return this.injector.inject(Parent.class);
+	}
+	
+	public static class Chain0 {
+	}
+	
+	public static class Chain1 {
+		public Chain1(Chain0 previous) {
+		}
+	}
+	
+	public static class Chain2 {
+		public Chain2(Chain1 previous) {
+		}
+	}
+	
+	public static class Chain3 {
+		public Chain3(Chain2 previous) {
+		}
+	}
+	
+	public static class Chain4 {
+		public Chain4(Chain3 previous) {
+		}
+	}
+	
+	public static class Chain5 {
+		public Chain5(Chain4 previous) {
+		}
+	}
+	
+	public static class Chain6 {
+		public Chain6(Chain5 previous) {
+		}
+	}
+	
+	public static class Chain7 {
+		public Chain7(Chain6 previous) {
+		}
+	}
+	
+	public static class Chain8 {
+		public Chain8(Chain7 previous) {
+		}
+	}
+	
+	public static class Chain9 {
+		public Chain9(Chain8 previous) {
+		}
+	}
+	
+	public static class Singleton {
+	}
+	
+	public static class Wide {
+		@Inject BigDecimal number1;
+		@Inject BigDecimal number2;
+		@Inject BigDecimal number3;
+		@Inject BigDecimal number4;
+		@Inject String text1;
+		@Inject String text2;
+		@Inject String text3;
+		@Inject String text4;
+		@Inject Integer integer1;
+		@Inject Integer integer2;
+		@Inject Integer integer3;
+		@Inject Integer integer4;
+		@Inject Singleton singleton1;
+		@Inject Singleton singleton2;
+		@Inject Singleton singleton3;
+		@Inject Singleton singleton4;
+	}
+	
+	@Provide(Child1.class)
+	@Provide(Child2.class)
+	public static class Parent {
+		@Inject Child1 child1;
+		@Inject Child2 child2;
+	}
+	
+	public static class Child1 {
+		@Inject Parent parent;
+	}
+	
+	public static class Child2 {
+		final Parent parent;
+		
+		public Child2(Parent parent) {
+			this.parent = parent;
+		}
+	}
+}
@@ -0,0 +1,7 @@
+package dev.philipp.depen.benchmark;
+
+import org.openjdk.jmh.annotations.Fork;
+
+@Fork(1)
+public class HandleInstantiationBenchmark extends InstantiationBenchmark {
+}
@@ -0,0 +1,77 @@
+package dev.philipp.depen.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+
+/**
+ * Measures the cost of constructing prototypes and writing injected fields.
+ * The subclasses run the same benchmarks once with method handles and once with plain reflection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class InstantiationBenchmark {
+
+	private Injector injector;
+	
+	@Setup
+	public void setup() {
+		this.injector = new Injector();
+		this.injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		this.injector.forClass(String.class).provideValue("value");
+		this.injector.provide(NoArgs.class);
+		this.injector.provide(ConstructorArgs.class);
+		this.injector.provide(Fields.class);
+	}
+	
+	@Benchmark
+	public NoArgs noArgConstructor() {
+		return this.injector.inject(NoArgs.class);
+	}
+	
+	@Benchmark
+	public ConstructorArgs constructorArguments() {
+		return this.injector.inject(ConstructorArgs.class);
+	}
+	
+	@Benchmark
+	public Fields fieldInjection() {
+		return this.injector.inject(Fields.class);
+	}
+	
+	public static class NoArgs {
+	}
+	
+	public static class ConstructorArgs {
+		final BigDecimal number;
+		final String text;
+		final NoArgs noArgs;
+		
+		public ConstructorArgs(BigDecimal number, String text, NoArgs noArgs) {
+			this.number = number;
+			this.text = text;
+			this.noArgs = noArgs;
+		}
+	}
+	
+	public static class Fields {
+		@Inject BigDecimal number;
+		@Inject String text;
+		@Inject NoArgs noArgs;
+	}
+}
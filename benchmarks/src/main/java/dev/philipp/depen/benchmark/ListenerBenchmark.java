@@ -0,0 +1,66 @@
+package dev.philipp.depen.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.JfrInjectionListener;
+import dev.philipp.depen.ResolutionMetrics;
+
+/**
+ * Measures the cost of observing resolutions, compared to an Injector without a listener.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+	@Param({"none", "metrics", "jfr"})
+	public String listener;
+	
+	private Injector injector;
+	
+	@Setup
+	public void setup() {
+		this.injector = new Injector();
+		this.injector.forClass(Singleton.class).provideInstanceOf(Singleton.class);
+		this.injector.provide(Prototype.class);
+		if (this.listener.equals("metrics")) {
+			this.injector.setListener(new ResolutionMetrics());
+		} else if (this.listener.equals("jfr")) {
+			this.injector.setListener(new JfrInjectionListener());
+		}
+	}
+	
+	@Benchmark
+	public Singleton singleton() {
+		return this.injector.inject(Singleton.class);
+	}
+	
+	@Benchmark
+	public Prototype prototype() {
+		return this.injector.inject(Prototype.class);
+	}
+	
+	public static class Singleton {
+	}
+	
+	public static class Prototype {
+		@Inject Singleton singleton;
+	}
+}
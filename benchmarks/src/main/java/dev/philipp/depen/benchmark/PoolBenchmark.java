@@ -0,0 +1,68 @@
+package dev.philipp.depen.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.Pooled;
+
+/**
+ * Compares a prototype binding of an object with a large buffer to the same class borrowed from a pool,
+ * with several threads borrowing at the same time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PoolBenchmark {
+
+	private Injector injector;
+	
+	@Setup
+	public void setup() {
+		this.injector = new Injector();
+		this.injector.provide(Parser.class);
+		this.injector.forClass(PooledParser.class).providePooled(PooledParser.class, 16, PooledParser::reset);
+	}
+	
+	@Benchmark
+	public int prototype() {
+		return this.injector.inject(Parser.class).parse();
+	}
+	
+	@Benchmark
+	public int pooled() {
+		try (Pooled<PooledParser> parser = this.injector.borrow(PooledParser.class)) {
+			return parser.get().parse();
+		}
+	}
+	
+	public static class Parser {
+		final char[] buffer = new char[8192];
+		
+		int parse() {
+			this.buffer[0] = 'x';
+			return this.buffer.length;
+		}
+	}
+	
+	public static class PooledParser extends Parser {
+		void reset() {
+			this.buffer[0] = 0;
+		}
+	}
+}
@@ -0,0 +1,7 @@
+package dev.philipp.depen.benchmark;
+
+import org.openjdk.jmh.annotations.Fork;
+
+@Fork(value = 1, jvmArgsAppend = "-Ddev.philipp.depen.reflection=true")
+public class ReflectionInstantiationBenchmark extends InstantiationBenchmark {
+}
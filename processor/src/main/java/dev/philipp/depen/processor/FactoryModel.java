@@ -0,0 +1,432 @@
+package dev.philipp.depen.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Lazy;
+import dev.philipp.depen.PostConstruct;
+import dev.philipp.depen.Provide;
+import dev.philipp.depen.Provider;
+import dev.philipp.depen.Provides;
+
+/**
+ * Everything needed to write the factory of one class. The constructor choice and the field order follow
+ * the rules of the reflective injection, so both ways create the same object graph.
+ */
+class FactoryModel {
+
+	static final String SUFFIX = "$$DepenFactory";
+
+	//the runtime needs the generic type of these sites, which a factory does not describe
+	private static final Set<String> DEFERRED_TYPES = new HashSet<>(Arrays.asList(
+			Provider.class.getName(), Supplier.class.getName(), Lazy.class.getName()));
+
+	private final Elements elements;
+
+	private final Types types;
+
+	private final TypeElement type;
+
+	private final PackageElement packageElement;
+
+	private final String factorySimpleName;
+
+	private final List<InjectionSite> parameters = new ArrayList<>();
+
+	private final List<InjectionSite> fields = new ArrayList<>();
+
+	private final List<String> provides = new ArrayList<>();
+
+	FactoryModel(ProcessingEnvironment processingEnv, TypeElement type) throws UnsupportedTypeException {
+		this.elements = processingEnv.getElementUtils();
+		this.types = processingEnv.getTypeUtils();
+		this.type = type;
+		this.packageElement = this.elements.getPackageOf(type);
+		String binaryName = this.elements.getBinaryName(type).toString();
+		String packageName = this.packageElement.getQualifiedName().toString();
+		this.factorySimpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+		this.checkType();
+		this.checkPostConstructs();
+		this.readConstructor();
+		if (!isRecord(this.type)) {
+			//the fields of a record are its components, which are passed to the canonical constructor
+			this.readFields();
+		}
+		this.readProvides();
+	}
+
+	/**
+	 * Compares the kind by name, the processor is built for Java 8 which has no records.
+	 */
+	static boolean isRecord(Element element) {
+		return element.getKind().name().equals("RECORD");
+	}
+
+	String getFactoryName() {
+		String packageName = this.packageElement.getQualifiedName().toString();
+		return packageName.isEmpty() ? this.factorySimpleName : packageName + "." + this.factorySimpleName;
+	}
+
+	void write(Writer writer) throws IOException {
+		String typeName = this.type.getQualifiedName().toString();
+		StringBuilder source = new StringBuilder();
+		if (!this.packageElement.isUnnamed()) {
+			source.append("package ").append(this.packageElement.getQualifiedName()).append(";\n\n");
+		}
+		source.append("/**\n * Generated by the depen annotation processor, do not edit.\n */\n");
+		source.append("public final class ").append(this.factorySimpleName)
+				.append(" extends dev.philipp.depen.GeneratedFactory<").append(typeName).append("> {\n\n");
+		source.append("\tpublic ").append(this.factorySimpleName).append("() {\n");
+		source.append("\t\tsuper(").append(classArray(this.parameters)).append(", ").append(optionalArray(this.parameters)).append(",\n");
+		source.append("\t\t\t\t").append(nameArray(this.fields)).append(", ").append(classArray(this.fields))
+				.append(", ").append(optionalArray(this.fields)).append(",\n");
+		source.append("\t\t\t\tnew Class<?>[] {").append(String.join(", ", this.provides)).append("});\n");
+		source.append("\t}\n\n");
+		source.append("\t@Override\n");
+		source.append("\tprotected ").append(typeName).append(" newInstance(Object[] args) {\n");
+		source.append("\t\treturn new ").append(typeName).append("(");
+		for (int i = 0; i < this.parameters.size(); i++) {
+			if (i > 0) {
+				source.append(", ");
+			}
+			source.append("(").append(this.parameters.get(i).castType).append(") args[").append(i).append("]");
+		}
+		source.append(");\n");
+		source.append("\t}\n\n");
+		source.append("\t@Override\n");
+		source.append("\tprotected void setField(").append(typeName).append(" instance, int index, Object value) {\n");
+		source.append("\t\tswitch (index) {\n");
+		for (int i = 0; i < this.fields.size(); i++) {
+			InjectionSite field = this.fields.get(i);
+			source.append("\t\tcase ").append(i).append(":\n");
+			source.append("\t\t\t((").append(field.declaringType).append(") instance).").append(field.name)
+					.append(" = (").append(field.castType).append(") value;\n");
+			source.append("\t\t\tbreak;\n");
+		}
+		source.append("\t\tdefault:\n");
+		source.append("\t\t\tthrow new IndexOutOfBoundsException(String.valueOf(index));\n");
+		source.append("\t\t}\n");
+		source.append("\t}\n");
+		source.append("}\n");
+		writer.write(source.toString());
+	}
+
+	private void checkType() throws UnsupportedTypeException {
+		if (this.type.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new UnsupportedTypeException("abstract class");
+		}
+		if (!this.type.getTypeParameters().isEmpty()) {
+			throw new UnsupportedTypeException("generic class");
+		}
+		if (this.type.getNestingKind().isNested() && !this.type.getModifiers().contains(Modifier.STATIC)) {
+			throw new UnsupportedTypeException("inner class");
+		}
+		if (!this.isAccessible(this.type)) {
+			throw new UnsupportedTypeException("class not accessible");
+		}
+	}
+
+	/**
+	 * Post construct methods are called by the reflective initialization plan, which is only used without factory.
+	 */
+	private void checkPostConstructs() throws UnsupportedTypeException {
+		TypeElement current = this.type;
+		while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+			for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+				for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+					if (this.annotationName(annotation).equals(PostConstruct.class.getName())) {
+						throw new UnsupportedTypeException("post construct method " + method.getSimpleName());
+					}
+				}
+			}
+			TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) this.types.asElement(superclass) : null;
+		}
+	}
+
+	/**
+	 * Chooses the same constructor as the reflective construction plan.
+	 */
+	private void readConstructor() throws UnsupportedTypeException {
+		ExecutableElement constructor = this.chooseConstructor();
+		if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+			throw new UnsupportedTypeException("private constructor");
+		}
+		for (VariableElement parameter : constructor.getParameters()) {
+			this.parameters.add(this.site(parameter));
+		}
+	}
+
+	private ExecutableElement chooseConstructor() throws UnsupportedTypeException {
+		List<ExecutableElement> declared = ElementFilter.constructorsIn(this.type.getEnclosedElements());
+		ExecutableElement marked = null;
+		for (ExecutableElement constructor : declared) {
+			if (this.findInject(constructor) != null) {
+				if (marked != null) {
+					throw new UnsupportedTypeException("more than one constructor marked with @Inject");
+				}
+				marked = constructor;
+			}
+		}
+		if (marked != null) {
+			return marked;
+		}
+		if (isRecord(this.type)) {
+			List<Element> components = new ArrayList<>();
+			for (Element enclosed : this.type.getEnclosedElements()) {
+				if (enclosed.getKind().name().equals("RECORD_COMPONENT")) {
+					components.add(enclosed);
+				}
+			}
+			for (ExecutableElement constructor : declared) {
+				if (isCanonical(constructor, components)) {
+					return constructor;
+				}
+			}
+			throw new UnsupportedTypeException("no canonical constructor");
+		}
+		ExecutableElement noParamConstructor = null;
+		List<ExecutableElement> constructors = new ArrayList<>();
+		for (ExecutableElement constructor : declared) {
+			if (constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				constructors.add(constructor);
+			}
+		}
+		if (constructors.isEmpty()) {
+			constructors.addAll(declared);
+		}
+		for (ExecutableElement constructor : constructors) {
+			if (constructor.getParameters().isEmpty()) {
+				noParamConstructor = constructor;
+			}
+		}
+		if (noParamConstructor == null && constructors.size() != 1) {
+			throw new UnsupportedTypeException("no default constructor and not only one");
+		}
+		return noParamConstructor != null ? noParamConstructor : constructors.get(0);
+	}
+
+	private boolean isCanonical(ExecutableElement constructor, List<Element> components) {
+		List<? extends VariableElement> parameters = constructor.getParameters();
+		if (parameters.size() != components.size()) {
+			return false;
+		}
+		for (int i = 0; i < parameters.size(); i++) {
+			if (!this.types.isSameType(this.types.erasure(parameters.get(i).asType()), this.types.erasure(components.get(i).asType()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void readFields() throws UnsupportedTypeException {
+		//superclass fields first, like the reflective initialization
+		Deque<TypeElement> hierarchy = new ArrayDeque<>();
+		TypeElement current = this.type;
+		while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+			hierarchy.push(current);
+			TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) this.types.asElement(superclass) : null;
+		}
+		for (TypeElement declaringType : hierarchy) {
+			for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+				if (this.findInject(field) == null) {
+					continue;
+				}
+				if (field.getModifiers().contains(Modifier.PRIVATE)) {
+					throw new UnsupportedTypeException("private field " + field.getSimpleName());
+				}
+				if (field.getModifiers().contains(Modifier.FINAL) || field.getModifiers().contains(Modifier.STATIC)) {
+					throw new UnsupportedTypeException("final or static field " + field.getSimpleName());
+				}
+				if (!field.getModifiers().contains(Modifier.PUBLIC) && !this.isSamePackage(declaringType)) {
+					throw new UnsupportedTypeException("field " + field.getSimpleName() + " not accessible");
+				}
+				if (!this.isAccessible(declaringType)) {
+					throw new UnsupportedTypeException("superclass " + declaringType.getQualifiedName() + " not accessible");
+				}
+				InjectionSite site = this.site(field);
+				site.declaringType = declaringType.getQualifiedName().toString();
+				this.fields.add(site);
+			}
+		}
+	}
+
+	private void readProvides() throws UnsupportedTypeException {
+		for (AnnotationMirror annotation : this.type.getAnnotationMirrors()) {
+			String annotationName = this.annotationName(annotation);
+			if (annotationName.equals(Provide.class.getName())) {
+				this.provides.add(this.classLiteral((TypeMirror) this.value(annotation, "value").getValue()));
+			} else if (annotationName.equals(Provides.class.getName())) {
+				@SuppressWarnings("unchecked")
+				List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) this.value(annotation, "value").getValue();
+				for (AnnotationValue value : values) {
+					AnnotationMirror provide = (AnnotationMirror) value.getValue();
+					this.provides.add(this.classLiteral((TypeMirror) this.value(provide, "value").getValue()));
+				}
+			}
+		}
+	}
+
+	private InjectionSite site(VariableElement element) throws UnsupportedTypeException {
+		TypeMirror declaredType = element.asType();
+		if (!this.isPlain(declaredType)) {
+			throw new UnsupportedTypeException("generic type of " + element.getSimpleName());
+		}
+		InjectionSite site = new InjectionSite();
+		site.name = element.getSimpleName().toString();
+		site.castType = this.castType(declaredType);
+		TypeMirror tokenType = declaredType;
+		AnnotationMirror inject = this.findInject(element);
+		if (inject != null) {
+			TypeMirror value = (TypeMirror) this.value(inject, "value").getValue();
+			if (!this.types.isSameType(value, this.elements.getTypeElement(Object.class.getName()).asType())) {
+				tokenType = value;
+			}
+			site.optional = (Boolean) this.value(inject, "optional").getValue();
+			if ((Boolean) this.value(inject, "lazy").getValue()) {
+				throw new UnsupportedTypeException("lazy injection of " + element.getSimpleName());
+			}
+		}
+		if (DEFERRED_TYPES.contains(this.types.erasure(declaredType).toString())) {
+			throw new UnsupportedTypeException("deferred injection of " + element.getSimpleName());
+		}
+		site.tokenClass = this.classLiteral(tokenType);
+		return site;
+	}
+
+	private AnnotationMirror findInject(Element element) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (this.annotationName(annotation).equals(Inject.class.getName())) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	private String annotationName(AnnotationMirror annotation) {
+		return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+	}
+
+	private AnnotationValue value(AnnotationMirror annotation, String name) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.elements.getElementValuesWithDefaults(annotation).entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				return entry.getValue();
+			}
+		}
+		throw new IllegalStateException("Annotation value " + name + " missing");
+	}
+
+	private boolean isPlain(TypeMirror mirror) {
+		switch (mirror.getKind()) {
+		case DECLARED:
+			return ((DeclaredType) mirror).getTypeArguments().isEmpty();
+		case ARRAY:
+			return this.isPlain(((ArrayType) mirror).getComponentType());
+		default:
+			return mirror.getKind().isPrimitive();
+		}
+	}
+
+	private String classLiteral(TypeMirror mirror) throws UnsupportedTypeException {
+		this.checkAccessible(mirror);
+		return this.types.erasure(mirror).toString() + ".class";
+	}
+
+	private String castType(TypeMirror mirror) throws UnsupportedTypeException {
+		if (mirror.getKind().isPrimitive()) {
+			return this.types.boxedClass((PrimitiveType) mirror).getQualifiedName().toString();
+		}
+		this.checkAccessible(mirror);
+		return this.types.erasure(mirror).toString();
+	}
+
+	private void checkAccessible(TypeMirror mirror) throws UnsupportedTypeException {
+		TypeMirror component = mirror;
+		while (component.getKind() == TypeKind.ARRAY) {
+			component = ((ArrayType) component).getComponentType();
+		}
+		if (component.getKind() == TypeKind.DECLARED && !this.isAccessible((TypeElement) this.types.asElement(component))) {
+			throw new UnsupportedTypeException(component + " not accessible");
+		}
+	}
+
+	private boolean isAccessible(TypeElement element) {
+		Element current = element;
+		while (current != null && current.getKind() != ElementKind.PACKAGE) {
+			if (current.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (!current.getModifiers().contains(Modifier.PUBLIC) && !this.isSamePackage(current)) {
+				return false;
+			}
+			current = current.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private boolean isSamePackage(Element element) {
+		return this.elements.getPackageOf(element).equals(this.packageElement);
+	}
+
+	private static String classArray(List<InjectionSite> sites) {
+		List<String> classes = new ArrayList<>();
+		for (InjectionSite site : sites) {
+			classes.add(site.tokenClass);
+		}
+		return "new Class<?>[] {" + String.join(", ", classes) + "}";
+	}
+
+	private static String optionalArray(List<InjectionSite> sites) {
+		List<String> optional = new ArrayList<>();
+		for (InjectionSite site : sites) {
+			optional.add(String.valueOf(site.optional));
+		}
+		return "new boolean[] {" + String.join(", ", optional) + "}";
+	}
+
+	private static String nameArray(List<InjectionSite> sites) {
+		List<String> names = new ArrayList<>();
+		for (InjectionSite site : sites) {
+			names.add("\"" + site.name + "\"");
+		}
+		return "new String[] {" + String.join(", ", names) + "}";
+	}
+
+	private static class InjectionSite {
+		String name;
+		String declaringType;
+		String castType;
+		String tokenClass;
+		boolean optional;
+	}
+}
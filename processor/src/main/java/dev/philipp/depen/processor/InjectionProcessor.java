@@ -0,0 +1,97 @@
+package dev.philipp.depen.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Provide;
+import dev.philipp.depen.Provides;
+
+/**
+ * Generates a {@code GeneratedFactory} for every class with {@link Inject} fields or parameters and for every
+ * class with {@link Provide} annotations.
+ * <p>
+ * Classes the generated code can not access without reflection, e.g. classes with private injected fields,
+ * are skipped with a note. The Injector keeps using reflection for them.
+ * </p>
+ */
+public class InjectionProcessor extends AbstractProcessor {
+
+	private final Set<String> generated = new HashSet<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		Set<String> types = new HashSet<>();
+		types.add(Inject.class.getName());
+		types.add(Provide.class.getName());
+		types.add(Provides.class.getName());
+		return types;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> types = new LinkedHashSet<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(Inject.class)) {
+			TypeElement type = enclosingType(element);
+			if (type != null) {
+				types.add(type);
+			}
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(Provide.class)) {
+			types.add((TypeElement) element);
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(Provides.class)) {
+			types.add((TypeElement) element);
+		}
+		for (TypeElement type : types) {
+			if (this.generated.add(type.getQualifiedName().toString())) {
+				this.generate(type);
+			}
+		}
+		return false;
+	}
+
+	private void generate(TypeElement type) {
+		FactoryModel model;
+		try {
+			model = new FactoryModel(this.processingEnv, type);
+		} catch (UnsupportedTypeException e) {
+			this.processingEnv.getMessager().printMessage(Kind.NOTE,
+					"No factory generated, " + type.getQualifiedName() + " is injected by reflection: " + e.getMessage(), type);
+			return;
+		}
+		try {
+			JavaFileObject file = this.processingEnv.getFiler().createSourceFile(model.getFactoryName(), type);
+			try (Writer writer = file.openWriter()) {
+				model.write(writer);
+			}
+		} catch (IOException e) {
+			this.processingEnv.getMessager().printMessage(Kind.ERROR, "Factory can not be written: " + e.getMessage(), type);
+		}
+	}
+
+	private static TypeElement enclosingType(Element element) {
+		Element current = element;
+		while (current != null && current.getKind() != ElementKind.CLASS && !FactoryModel.isRecord(current)) {
+			current = current.getEnclosingElement();
+		}
+		return (TypeElement) current;
+	}
+}
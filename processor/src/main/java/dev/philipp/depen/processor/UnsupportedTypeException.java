@@ -0,0 +1,13 @@
+package dev.philipp.depen.processor;
+
+/**
+ * Thrown while analyzing a class that can not be injected by generated code.
+ */
+class UnsupportedTypeException extends Exception {
+
+	private static final long serialVersionUID = 4263178640927584153L;
+
+	UnsupportedTypeException(String msg) {
+		super(msg);
+	}
+}
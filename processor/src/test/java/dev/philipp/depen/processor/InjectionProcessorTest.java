@@ -0,0 +1,244 @@
+package dev.philipp.depen.processor;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dev.philipp.depen.GeneratedFactory;
+import dev.philipp.depen.Injector;
+
+public class InjectionProcessorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path sources;
+
+	private Path classes;
+
+	@Before
+	public void setUp() throws IOException {
+		this.sources = this.folder.newFolder("sources").toPath();
+		this.classes = this.folder.newFolder("classes").toPath();
+	}
+
+	@Test
+	public void testFactoryForFieldsAndConstructor() throws Exception {
+		this.source("sample/Service.java",
+				"package sample;",
+				"public class Service {}");
+		this.source("sample/Base.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"public class Base {",
+				"	@Inject(optional = true) protected Number number;",
+				"}");
+		this.source("sample/App.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"public class App extends Base {",
+				"	final Service constructed;",
+				"	final int count;",
+				"	@Inject Service service;",
+				"	public App(Service constructed, @Inject(Integer.class) int count) {",
+				"		this.constructed = constructed;",
+				"		this.count = count;",
+				"	}",
+				"}");
+		ClassLoader loader = this.compile();
+		Class<?> factoryClass = loader.loadClass("sample.App$$DepenFactory");
+		assertTrue(GeneratedFactory.class.isAssignableFrom(factoryClass));
+
+		Class<?> service = loader.loadClass("sample.Service");
+		Class<?> app = loader.loadClass("sample.App");
+		Injector injector = new Injector();
+		injector.provide(service);
+		injector.forClass(Integer.class).provideValue(3);
+		injector.provide(app);
+		Object instance = injector.inject(app);
+		assertNotNull(this.field(app, "constructed").get(instance));
+		assertNotNull(this.field(app, "service").get(instance));
+		assertEquals(3, this.field(app, "count").get(instance));
+		assertNull(this.field(loader.loadClass("sample.Base"), "number").get(instance));
+	}
+
+	@Test
+	public void testFactoryForProvide() throws Exception {
+		this.source("sample/Parent.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"import dev.philipp.depen.Provide;",
+				"@Provide(Child.class)",
+				"public class Parent {",
+				"	@Inject Child child;",
+				"}");
+		this.source("sample/Child.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"public class Child {",
+				"	@Inject Parent parent;",
+				"}");
+		ClassLoader loader = this.compile();
+		loader.loadClass("sample.Parent$$DepenFactory");
+		loader.loadClass("sample.Child$$DepenFactory");
+
+		Class<?> parent = loader.loadClass("sample.Parent");
+		Injector injector = new Injector();
+		injector.provide(parent);
+		Object instance = injector.inject(parent);
+		Object child = this.field(parent, "child").get(instance);
+		assertSame(instance, this.field(loader.loadClass("sample.Child"), "parent").get(child));
+	}
+
+	@Test
+	public void testPrivateFieldFallsBackToReflection() throws Exception {
+		this.source("sample/Hidden.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"public class Hidden {",
+				"	@Inject private StringBuilder builder;",
+				"}");
+		ClassLoader loader = this.compile();
+		assertFalse(Files.exists(this.classes.resolve("sample/Hidden$$DepenFactory.class")));
+
+		Class<?> hidden = loader.loadClass("sample.Hidden");
+		Injector injector = new Injector();
+		injector.provide(StringBuilder.class);
+		injector.provide(hidden);
+		assertNotNull(this.field(hidden, "builder").get(injector.inject(hidden)));
+	}
+
+	@Test
+	public void testDeferredFieldFallsBackToReflection() throws Exception {
+		this.source("sample/Deferred.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"import dev.philipp.depen.Provider;",
+				"public class Deferred {",
+				"	@Inject(StringBuilder.class) Provider builder;",
+				"	@Inject(lazy = true) CharSequence sequence;",
+				"}");
+		ClassLoader loader = this.compile();
+		assertFalse(Files.exists(this.classes.resolve("sample/Deferred$$DepenFactory.class")));
+
+		Class<?> deferred = loader.loadClass("sample.Deferred");
+		Injector injector = new Injector();
+		injector.provide(StringBuilder.class);
+		injector.forClass(CharSequence.class).provideValue("value");
+		injector.provide(deferred);
+		Object instance = injector.inject(deferred);
+		assertNotNull(((dev.philipp.depen.Provider<?>) this.field(deferred, "builder").get(instance)).get());
+		assertEquals("value", this.field(deferred, "sequence").get(instance).toString());
+	}
+
+	@Test
+	public void testPostConstructFallsBackToReflection() throws Exception {
+		this.source("sample/Started.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"import dev.philipp.depen.PostConstruct;",
+				"public class Started {",
+				"	@Inject StringBuilder builder;",
+				"	@PostConstruct void start() {",
+				"		this.builder.append(\"started\");",
+				"	}",
+				"}");
+		ClassLoader loader = this.compile();
+		assertFalse(Files.exists(this.classes.resolve("sample/Started$$DepenFactory.class")));
+
+		Class<?> started = loader.loadClass("sample.Started");
+		Injector injector = new Injector();
+		injector.provide(StringBuilder.class);
+		injector.provide(started);
+		assertEquals("started", this.field(started, "builder").get(injector.inject(started)).toString());
+	}
+
+	@Test
+	public void testFactoryForRecordAndMarkedConstructor() throws Exception {
+		this.source("sample/Service.java",
+				"package sample;",
+				"public class Service {}");
+		this.source("sample/Pair.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"public record Pair(Service service, @Inject(optional = true) Number number) {",
+				"	public Pair(Service service) {",
+				"		this(service, 1);",
+				"	}",
+				"}");
+		this.source("sample/Chosen.java",
+				"package sample;",
+				"import dev.philipp.depen.Inject;",
+				"public class Chosen {",
+				"	final Pair pair;",
+				"	public Chosen() {",
+				"		this(null);",
+				"	}",
+				"	@Inject Chosen(Pair pair) {",
+				"		this.pair = pair;",
+				"	}",
+				"}");
+		ClassLoader loader = this.compile();
+		loader.loadClass("sample.Pair$$DepenFactory");
+		loader.loadClass("sample.Chosen$$DepenFactory");
+
+		Class<?> chosen = loader.loadClass("sample.Chosen");
+		Class<?> pair = loader.loadClass("sample.Pair");
+		Injector injector = new Injector();
+		injector.provide(loader.loadClass("sample.Service"));
+		injector.provide(pair);
+		injector.provide(chosen);
+		Object instance = this.field(chosen, "pair").get(injector.inject(chosen));
+		assertNotNull(pair.getMethod("service").invoke(instance));
+		assertNull(pair.getMethod("number").invoke(instance));
+	}
+
+	private void source(String path, String... lines) throws IOException {
+		Path file = this.sources.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+	private ClassLoader compile() throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+			List<File> files = new ArrayList<>();
+			Files.walk(this.sources).filter(Files::isRegularFile).forEach(path -> files.add(path.toFile()));
+			Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+			List<String> options = Arrays.asList(
+					"-classpath", System.getProperty("java.class.path"),
+					"-d", this.classes.toString(),
+					"-s", this.classes.toString());
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+			task.setProcessors(Arrays.asList(new InjectionProcessor()));
+			assertTrue("compilation failed", task.call());
+		}
+		return new URLClassLoader(new URL[] {this.classes.toUri().toURL()}, this.getClass().getClassLoader());
+	}
+
+	private Field field(Class<?> clazz, String name) throws NoSuchFieldException {
+		Field field = clazz.getDeclaredField(name);
+		field.setAccessible(true);
+		return field;
+	}
+}
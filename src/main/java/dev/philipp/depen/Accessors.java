@@ -0,0 +1,324 @@
+package dev.philipp.depen;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Creates the instantiators and field writers used by the plans.
+ * <p>
+ * Constructors, fields and methods are accessed through plain reflection first. Creating a {@link MethodHandle} costs
+ * more than a few reflective calls, so a member only gets one after {@value #HOT_CALLS} calls, from then on it is
+ * accessed through the handle, which the JIT can inline. Setting the system property {@value #REFLECTION_PROPERTY}
+ * to {@code true} keeps reflection for good. The same fallback is used whenever a handle can not be created for a
+ * member.
+ * </p>
+ */
+final class Accessors {
+
+	static final String REFLECTION_PROPERTY = "dev.philipp.depen.reflection";
+
+	static final boolean REFLECTION = Boolean.getBoolean(REFLECTION_PROPERTY);
+
+	/**
+	 * The calls through reflection before a member is accessed through a handle
+	 */
+	static final int HOT_CALLS = 32;
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final MethodType CALLER_TYPE = MethodType.methodType(void.class, Object.class);
+
+	private Accessors() {
+	}
+
+	/**
+	 * Creates a new instance from already resolved constructor arguments.
+	 */
+	interface Instantiator<T> {
+		T newInstance(Object[] args) throws ReflectiveOperationException;
+	}
+
+	/**
+	 * Writes a resolved value into a field of the target object.
+	 */
+	interface FieldWriter {
+		void set(Object target, Object value);
+	}
+
+	/**
+	 * Calls a method without parameters on the target object.
+	 */
+	interface MethodCaller {
+		void call(Object target);
+	}
+
+	/**
+	 * An accessor that starts with reflection and switches to a handle once it is hot.
+	 */
+	interface Tiered<A> {
+		/**
+		 * @return the accessor through a handle, created now if the member is not hot yet
+		 */
+		A hot();
+	}
+
+	/**
+	 * @return the accessor through a handle for a tiered one, the accessor itself otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	static <A> A hot(A accessor) {
+		return accessor instanceof Tiered ? ((Tiered<A>) accessor).hot() : accessor;
+	}
+
+	static <T> Instantiator<T> instantiator(Constructor<T> constructor) {
+		return REFLECTION ? instantiator(constructor, true) : new TieredInstantiator<>(constructor);
+	}
+
+	static <T> Instantiator<T> instantiator(Constructor<T> constructor, boolean reflection) {
+		if (!reflection) {
+			try {
+				int arity = constructor.getParameterCount();
+				MethodHandle handle = LOOKUP.unreflectConstructor(constructor)
+						.asType(MethodType.genericMethodType(arity))
+						.asSpreader(Object[].class, arity);
+				return new HandleInstantiator<>(handle);
+			} catch (IllegalAccessException e) {
+				//not accessible for handles, reflection reports the same problem on first use
+			}
+		}
+		return constructor::newInstance;
+	}
+
+	static FieldWriter writer(Field field) {
+		return REFLECTION ? writer(field, true) : new TieredFieldWriter(field);
+	}
+
+	static FieldWriter writer(Field field, boolean reflection) {
+		if (!reflection) {
+			try {
+				MethodHandle handle = LOOKUP.unreflectSetter(field);
+				if (Modifier.isStatic(field.getModifiers())) {
+					//a static setter has no target, it ignores the one it is called with like Field#set
+					handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				}
+				return new HandleFieldWriter(handle.asType(SETTER_TYPE));
+			} catch (IllegalAccessException e) {
+				//final or otherwise inaccessible, reflection reports the problem on first use
+			}
+		}
+		return (target, value) -> {
+			try {
+				field.set(target, value);
+			} catch (IllegalArgumentException | IllegalAccessException e) {
+				throw new InjectionException(e);
+			}
+		};
+	}
+
+	static MethodCaller caller(Method method) {
+		return REFLECTION ? caller(method, true) : new TieredMethodCaller(method);
+	}
+
+	static MethodCaller caller(Method method, boolean reflection) {
+		if (!reflection) {
+			try {
+				MethodHandle handle = LOOKUP.unreflect(method);
+				if (Modifier.isStatic(method.getModifiers())) {
+					handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				}
+				return new HandleMethodCaller(handle.asType(CALLER_TYPE), method.getName());
+			} catch (IllegalAccessException e) {
+				//not accessible for handles, reflection reports the problem on first use
+			}
+		}
+		return target -> {
+			try {
+				method.invoke(target);
+			} catch (InvocationTargetException e) {
+				throw new InjectionException(method.getName() + " of " + target.getClass().getName() + " failed", e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new InjectionException(e);
+			}
+		};
+	}
+
+	/*
+	 * The tiered accessors count their calls without synchronization. A lost update only delays the switch, and two
+	 * threads creating a handle at the same time both create a working one. The handle accessors only have final
+	 * fields, so they are safely published through the plain field.
+	 */
+
+	private static final class TieredInstantiator<T> implements Instantiator<T>, Tiered<Instantiator<T>> {
+
+		private final Constructor<T> constructor;
+
+		private Instantiator<T> hot;
+
+		private int calls;
+
+		TieredInstantiator(Constructor<T> constructor) {
+			this.constructor = constructor;
+		}
+
+		@Override
+		public T newInstance(Object[] args) throws ReflectiveOperationException {
+			Instantiator<T> hot = this.hot;
+			if (hot != null) {
+				return hot.newInstance(args);
+			}
+			if (++this.calls >= HOT_CALLS) {
+				this.hot = instantiator(this.constructor, false);
+			}
+			return this.constructor.newInstance(args);
+		}
+
+		@Override
+		public Instantiator<T> hot() {
+			if (this.hot == null) {
+				this.hot = instantiator(this.constructor, false);
+			}
+			return this.hot;
+		}
+	}
+
+	private static final class TieredFieldWriter implements FieldWriter, Tiered<FieldWriter> {
+
+		private final Field field;
+
+		private final FieldWriter reflective;
+
+		private FieldWriter hot;
+
+		private int calls;
+
+		TieredFieldWriter(Field field) {
+			this.field = field;
+			this.reflective = writer(field, true);
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			FieldWriter hot = this.hot;
+			if (hot != null) {
+				hot.set(target, value);
+				return;
+			}
+			if (++this.calls >= HOT_CALLS) {
+				this.hot = writer(this.field, false);
+			}
+			this.reflective.set(target, value);
+		}
+
+		@Override
+		public FieldWriter hot() {
+			if (this.hot == null) {
+				this.hot = writer(this.field, false);
+			}
+			return this.hot;
+		}
+	}
+
+	private static final class TieredMethodCaller implements MethodCaller, Tiered<MethodCaller> {
+
+		private final Method method;
+
+		private final MethodCaller reflective;
+
+		private MethodCaller hot;
+
+		private int calls;
+
+		TieredMethodCaller(Method method) {
+			this.method = method;
+			this.reflective = caller(method, true);
+		}
+
+		@Override
+		public void call(Object target) {
+			MethodCaller hot = this.hot;
+			if (hot != null) {
+				hot.call(target);
+				return;
+			}
+			if (++this.calls >= HOT_CALLS) {
+				this.hot = caller(this.method, false);
+			}
+			this.reflective.call(target);
+		}
+
+		@Override
+		public MethodCaller hot() {
+			if (this.hot == null) {
+				this.hot = caller(this.method, false);
+			}
+			return this.hot;
+		}
+	}
+
+	private static final class HandleInstantiator<T> implements Instantiator<T> {
+
+		private final MethodHandle handle;
+
+		HandleInstantiator(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T newInstance(Object[] args) throws ReflectiveOperationException {
+			try {
+				return (T) (Object) this.handle.invokeExact(args);
+			} catch (Throwable e) {
+				//same contract as Constructor#newInstance
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+
+	private static final class HandleFieldWriter implements FieldWriter {
+
+		private final MethodHandle handle;
+
+		HandleFieldWriter(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			try {
+				this.handle.invokeExact(target, value);
+			} catch (Throwable e) {
+				throw new InjectionException(e);
+			}
+		}
+	}
+
+	private static final class HandleMethodCaller implements MethodCaller {
+
+		private final MethodHandle handle;
+
+		private final String name;
+
+		HandleMethodCaller(MethodHandle handle, String name) {
+			this.handle = handle;
+			this.name = name;
+		}
+
+		@Override
+		public void call(Object target) {
+			try {
+				this.handle.invokeExact(target);
+			} catch (Throwable e) {
+				throw new InjectionException(this.name + " of " + target.getClass().getName() + " failed", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package dev.philipp.depen;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Finds the asynchronous bindings a binding needs, following the same plans as the synchronous resolution.
+ * Once all of them are complete, the binding is resolved without blocking.
+ */
+final class AsyncDependencies {
+
+	private final Set<Object> visited = new HashSet<>();
+
+	private final List<CompletableFuture<?>> futures = new ArrayList<>();
+
+	private AsyncDependencies() {
+	}
+
+	/**
+	 * @return a future completing once every asynchronous binding needed for the token is created
+	 */
+	static CompletableFuture<Void> ready(Injector injector, InjectionToken<?> token) {
+		AsyncDependencies dependencies = new AsyncDependencies();
+		try {
+			dependencies.collect(injector, token);
+		} catch (RuntimeException e) {
+			CompletableFuture<Void> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		return dependencies.allOf();
+	}
+
+	/**
+	 * @return a future completing once every asynchronous binding needed to create the class is created
+	 */
+	static CompletableFuture<Void> ready(Injector injector, Class<?> clazz) {
+		AsyncDependencies dependencies = new AsyncDependencies();
+		try {
+			dependencies.collectClass(injector, clazz);
+		} catch (RuntimeException e) {
+			CompletableFuture<Void> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		return dependencies.allOf();
+	}
+
+	private CompletableFuture<Void> allOf() {
+		if (this.futures.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return CompletableFuture.allOf(this.futures.toArray(new CompletableFuture<?>[0]));
+	}
+
+	private void collect(Injector injector, InjectionToken<?> token) {
+		if (!this.visited.add(token)) {
+			return;
+		}
+		//missing bindings are reported by the resolution itself
+		Injector owner = injector.owner(token);
+		if (owner != null) {
+			this.collect(owner, owner.binding(token));
+		}
+	}
+
+	private void collect(Injector owner, Injectable<?> injectable) {
+		if (injectable instanceof AsyncInjectable) {
+			this.futures.add(((AsyncInjectable<?>) injectable).resolveAsync(owner));
+		} else if (injectable instanceof InstanceInjectable && ((InstanceInjectable<?>) injectable).isCreated()) {
+			return;
+		} else if (injectable instanceof ClassInjectable) {
+			this.collectClass(owner, ((ClassInjectable<?>) injectable).getClazz());
+		} else if (injectable instanceof MultibindingInjectable) {
+			for (Injectable<?> element : ((MultibindingInjectable<?>) injectable).getElements()) {
+				this.collect(owner, element);
+			}
+		}
+	}
+
+	private void collectClass(Injector owner, Class<?> clazz) {
+		if (!this.visited.add(clazz)) {
+			return;
+		}
+		this.collect(owner, ConstructionPlan.of(clazz).parameters);
+		InitializationPlan initializationPlan = InitializationPlan.of(clazz);
+		for (Class<?> provide : initializationPlan.provides) {
+			this.collectClass(owner, provide);
+		}
+		this.collect(owner, initializationPlan.dependencies);
+	}
+
+	private void collect(Injector owner, Dependency[] dependencies) {
+		for (Dependency dependency : dependencies) {
+			if (dependency.isDeferred()) {
+				continue;
+			}
+			this.collect(owner, dependency.token);
+			if (dependency.fallback != null) {
+				this.collect(owner, dependency.fallback);
+			}
+		}
+	}
+}
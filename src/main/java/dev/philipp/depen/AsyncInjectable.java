@@ -0,0 +1,90 @@
+package dev.philipp.depen;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A singleton binding created asynchronously. All callers share the future of the one construction in flight,
+ * which is claimed without a lock, so no thread waits for a monitor while another one starts the construction.
+ * A failed construction is forgotten, the next caller starts a new one.
+ */
+class AsyncInjectable<T> extends Injectable<T> {
+
+	private final Function<Injector, ? extends CompletionStage<? extends T>> factory;
+
+	private final AtomicReference<CompletableFuture<T>> future = new AtomicReference<>();
+
+	AsyncInjectable(Function<Injector, ? extends CompletionStage<? extends T>> factory) {
+		this.factory = factory;
+	}
+
+	CompletableFuture<T> resolveAsync(Injector injector) {
+		CompletableFuture<T> future = this.future.get();
+		if (future != null) {
+			return future;
+		}
+		CompletableFuture<T> created = new CompletableFuture<>();
+		if (!this.future.compareAndSet(null, created)) {
+			return this.future.get();
+		}
+		try {
+			this.factory.apply(injector).whenComplete((value, failure) -> {
+				if (failure != null) {
+					this.future.compareAndSet(created, null);
+					created.completeExceptionally(failure);
+				} else {
+					created.complete(value);
+				}
+			});
+		} catch (RuntimeException e) {
+			this.future.compareAndSet(created, null);
+			created.completeExceptionally(e);
+		} catch (Error e) {
+			//the callers sharing the future must not wait forever
+			this.future.compareAndSet(created, null);
+			created.completeExceptionally(e);
+			throw e;
+		}
+		return created;
+	}
+
+	/**
+	 * @return the instance, or null if it was not created yet or its creation failed
+	 */
+	T getInstance() {
+		CompletableFuture<T> future = this.future.get();
+		return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+	}
+
+	/**
+	 * Blocks until the instance is created, {@link Injector#injectAsync(Class)} does not.
+	 */
+	@Override
+	T resolve(Injector injector, ClassTrace classTrace) {
+		try {
+			return this.resolveAsync(injector).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new InjectionException(e.getCause());
+		}
+	}
+
+	@Override
+	boolean isShared() {
+		return true;
+	}
+
+	@Override
+	boolean isCached() {
+		CompletableFuture<T> future = this.future.get();
+		return future != null && future.isDone() && !future.isCompletedExceptionally();
+	}
+}
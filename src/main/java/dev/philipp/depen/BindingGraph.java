@@ -0,0 +1,356 @@
+package dev.philipp.depen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A snapshot of the bindings of an {@link Injector} and the bindings each of them resolves while it is created,
+ * built from the constructor and {@link Inject} metadata without creating a single instance:
+ * <pre>{@code
+ * BindingGraph graph = injector.graph();
+ * Files.writeString(Path.of("bindings.dot"), graph.toDot()); // dot -Tsvg bindings.dot > bindings.svg
+ * graph.getHeavyPrototypes(2).forEach(node -> System.out.println(node));
+ * }</pre>
+ * <p>
+ * Classes provided by {@link Provide} annotations are not bindings, their dependencies belong to the binding that
+ * provides them. Factories can not be looked into, so they have no dependencies. Bindings of parent injectors are
+ * not part of the graph.
+ * </p>
+ */
+public final class BindingGraph {
+
+	/**
+	 * How often a binding creates an instance.
+	 */
+	public enum Scope {
+		/** a value, nothing is ever created */
+		VALUE,
+		/** created once, by {@link InjectionPoint#provideInstanceOf(Class)} */
+		SINGLETON,
+		/** created once per {@link dev.philipp.depen.Scope} */
+		SCOPED,
+		/** created asynchronously once */
+		ASYNC,
+		/** taken from a pool, created if the pool is empty */
+		POOLED,
+		/** created on every injection */
+		PROTOTYPE,
+		/** a factory called on every injection */
+		FACTORY,
+		/** a set or map multibinding, created on every injection unless all elements are shared */
+		MULTIBINDING
+	}
+
+	/**
+	 * A binding of the graph.
+	 */
+	public static final class Node {
+
+		private final int index;
+
+		private final InjectionToken<?> token;
+
+		private final String name;
+
+		private final Scope scope;
+
+		private final List<Node> dependencies = new ArrayList<>();
+
+		private final List<Node> dependents = new ArrayList<>();
+
+		private final List<Node> singletonDependents = new ArrayList<>();
+
+		private int transitiveDependencies;
+
+		private Node(int index, DependencyGraph.Node node) {
+			this.index = index;
+			this.token = node.token;
+			this.name = node.toString();
+			this.scope = scopeOf(node.injectable);
+		}
+
+		/**
+		 * @return the token the binding is provided for
+		 */
+		public InjectionToken<?> getToken() {
+			return this.token;
+		}
+
+		/**
+		 * @return the simple class name for class bindings, the token description otherwise
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		public Scope getScope() {
+			return this.scope;
+		}
+
+		/**
+		 * @return the bindings resolved while this binding creates an instance
+		 */
+		public List<Node> getDependencies() {
+			return Collections.unmodifiableList(this.dependencies);
+		}
+
+		/**
+		 * @return the bindings that resolve this binding while they create an instance
+		 */
+		public List<Node> getDependents() {
+			return Collections.unmodifiableList(this.dependents);
+		}
+
+		public int getFanIn() {
+			return this.dependents.size();
+		}
+
+		public int getFanOut() {
+			return this.dependencies.size();
+		}
+
+		/**
+		 * @return the number of bindings resolved while this binding creates an instance, directly or indirectly
+		 */
+		public int getTransitiveDependencyCount() {
+			return this.transitiveDependencies;
+		}
+
+		/**
+		 * @return the singletons that resolve this binding while they are created, either directly or through
+		 * other bindings that are not singletons themselves. A prototype is created once for each of them.
+		 */
+		public List<Node> getSingletonDependents() {
+			return Collections.unmodifiableList(this.singletonDependents);
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " (" + this.scope + ", fan-in " + this.getFanIn() + ", fan-out " + this.getFanOut()
+					+ ", " + this.singletonDependents.size() + " singleton dependents)";
+		}
+	}
+
+	private final List<Node> nodes = new ArrayList<>();
+
+	private final List<String> problems;
+
+	BindingGraph(DependencyGraph graph) {
+		Map<DependencyGraph.Node, Node> nodes = new IdentityHashMap<>();
+		for (DependencyGraph.Node node : graph.getNodes()) {
+			Node exported = new Node(this.nodes.size(), node);
+			this.nodes.add(exported);
+			nodes.put(node, exported);
+		}
+		for (DependencyGraph.Node node : graph.getNodes()) {
+			Node exported = nodes.get(node);
+			for (DependencyGraph.Node dependency : node.dependencies) {
+				exported.dependencies.add(nodes.get(dependency));
+			}
+			for (DependencyGraph.Node dependent : node.dependents) {
+				exported.dependents.add(nodes.get(dependent));
+			}
+		}
+		for (Node node : this.nodes) {
+			node.transitiveDependencies = reachable(node, false).size();
+			for (Node dependent : reachable(node, true)) {
+				if (dependent.scope == Scope.SINGLETON) {
+					node.singletonDependents.add(dependent);
+				}
+			}
+		}
+		this.problems = graph.getProblems();
+	}
+
+	/**
+	 * @return all bindings, in the order they were provided
+	 */
+	public List<Node> getNodes() {
+		return Collections.unmodifiableList(this.nodes);
+	}
+
+	/**
+	 * @return the binding of the token, or null if the Injector has none
+	 */
+	public Node getNode(InjectionToken<?> token) {
+		for (Node node : this.nodes) {
+			if (node.token.equals(token)) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the binding of the class, or null if the Injector has none
+	 */
+	public Node getNode(Class<?> clazz) {
+		return this.getNode(InjectionToken.of(clazz));
+	}
+
+	/**
+	 * @return every missing binding, circular dependency and class without injectable constructor,
+	 * just like {@link ValidationException#getProblems()}
+	 */
+	public List<String> getProblems() {
+		return this.problems;
+	}
+
+	/**
+	 * Finds the prototypes that are created over and over while the singletons are created.
+	 *
+	 * @param minSingletons the number of singletons that have to resolve a prototype to be reported
+	 * @return the prototypes resolved by at least that many singletons, the ones resolved by most singletons and
+	 * with most transitive dependencies first
+	 */
+	public List<Node> getHeavyPrototypes(int minSingletons) {
+		List<Node> heavy = new ArrayList<>();
+		for (Node node : this.nodes) {
+			if (node.scope == Scope.PROTOTYPE && node.singletonDependents.size() >= minSingletons) {
+				heavy.add(node);
+			}
+		}
+		heavy.sort((a, b) -> a.singletonDependents.size() != b.singletonDependents.size()
+				? Integer.compare(b.singletonDependents.size(), a.singletonDependents.size())
+				: Integer.compare(b.transitiveDependencies, a.transitiveDependencies));
+		return heavy;
+	}
+
+	/**
+	 * @return the graph in the Graphviz DOT language. Singletons are drawn bold, prototypes resolved by more than one
+	 * singleton are drawn red.
+	 */
+	public String toDot() {
+		StringBuilder dot = new StringBuilder("digraph bindings {\n");
+		dot.append("  node [shape=box];\n");
+		for (Node node : this.nodes) {
+			dot.append("  n").append(node.index).append(" [label=").append(quote(node.name + "\n" + node.scope));
+			if (node.scope == Scope.SINGLETON) {
+				dot.append(", style=bold");
+			} else if (node.scope == Scope.PROTOTYPE && node.singletonDependents.size() > 1) {
+				dot.append(", color=red");
+			}
+			dot.append("];\n");
+		}
+		for (Node node : this.nodes) {
+			for (Node dependency : node.dependencies) {
+				dot.append("  n").append(node.index).append(" -> n").append(dependency.index).append(";\n");
+			}
+		}
+		return dot.append("}\n").toString();
+	}
+
+	/**
+	 * @return the graph as JSON object with a {@code nodes} array, each node with its {@code id}, {@code name},
+	 * {@code token}, {@code scope}, {@code fanIn}, {@code fanOut}, {@code transitiveDependencies},
+	 * {@code singletonDependents} and the ids of its {@code dependencies}, and a {@code problems} array
+	 */
+	public String toJson() {
+		StringBuilder json = new StringBuilder("{\"nodes\":[");
+		for (Node node : this.nodes) {
+			if (node.index > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(node.index)
+					.append(",\"name\":").append(quote(node.name))
+					.append(",\"token\":").append(quote(node.token.toString()))
+					.append(",\"scope\":\"").append(node.scope).append('"')
+					.append(",\"fanIn\":").append(node.getFanIn())
+					.append(",\"fanOut\":").append(node.getFanOut())
+					.append(",\"transitiveDependencies\":").append(node.transitiveDependencies)
+					.append(",\"singletonDependents\":").append(node.singletonDependents.size())
+					.append(",\"dependencies\":[");
+			for (int i = 0; i < node.dependencies.size(); i++) {
+				if (i > 0) {
+					json.append(',');
+				}
+				json.append(node.dependencies.get(i).index);
+			}
+			json.append("]}");
+		}
+		json.append("],\"problems\":[");
+		for (int i = 0; i < this.problems.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append(quote(this.problems.get(i)));
+		}
+		return json.append("]}").toString();
+	}
+
+	@Override
+	public String toString() {
+		return this.toDot();
+	}
+
+	/**
+	 * @param dependents whether to follow the dependents instead of the dependencies
+	 * @return the nodes reachable from the node, not including the node itself. Dependents are only followed
+	 * through nodes that are not singletons, since a singleton is created once no matter how often it is resolved.
+	 */
+	private static Set<Node> reachable(Node node, boolean dependents) {
+		Set<Node> reached = new LinkedHashSet<>();
+		Set<Node> expanded = new HashSet<>();
+		Deque<Node> pending = new ArrayDeque<>();
+		pending.push(node);
+		while (!pending.isEmpty()) {
+			Node current = pending.pop();
+			if (!expanded.add(current)) {
+				continue;
+			}
+			if (current != node) {
+				reached.add(current);
+				if (dependents && current.scope == Scope.SINGLETON) {
+					continue;
+				}
+			}
+			pending.addAll(dependents ? current.dependents : current.dependencies);
+		}
+		reached.remove(node);
+		return reached;
+	}
+
+	private static Scope scopeOf(Injectable<?> injectable) {
+		if (injectable instanceof ValueInjectable) {
+			return Scope.VALUE;
+		} else if (injectable instanceof InstanceInjectable) {
+			return Scope.SINGLETON;
+		} else if (injectable instanceof ScopedInjectable) {
+			return Scope.SCOPED;
+		} else if (injectable instanceof AsyncInjectable) {
+			return Scope.ASYNC;
+		} else if (injectable instanceof PooledInjectable) {
+			return Scope.POOLED;
+		} else if (injectable instanceof ClassInjectable) {
+			return Scope.PROTOTYPE;
+		} else if (injectable instanceof MultibindingInjectable) {
+			return Scope.MULTIBINDING;
+		}
+		return Scope.FACTORY;
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			} else if (c == '\n') {
+				quoted.append("\\n");
+			} else if (c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			} else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
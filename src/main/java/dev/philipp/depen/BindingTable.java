@@ -0,0 +1,129 @@
+package dev.philipp.depen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The bindings of an {@link Injector}, an open addressing hash table keyed by the id of their
+ * {@link InjectionToken}.
+ * <p>
+ * The slots hold the token and the binding next to each other, so a lookup hashes the id and usually finds the
+ * binding in the first slot, without locks or equality checks. Bindings are added under the lock of the table and
+ * a binding is stored before its token, so a lookup that finds the token also finds the binding. The table grows
+ * with the bindings of its own Injector only, a table without bindings shares the empty slots.
+ * </p>
+ */
+final class BindingTable {
+
+	private static final AtomicReferenceArray<Object> EMPTY = new AtomicReferenceArray<>(2);
+
+	private volatile AtomicReferenceArray<Object> slots = EMPTY;
+
+	/**
+	 * The tokens in the order they were bound, guarded by the lock of the table
+	 */
+	private List<InjectionToken<?>> tokens = Collections.emptyList();
+
+	Injectable<?> get(InjectionToken<?> token) {
+		AtomicReferenceArray<Object> slots = this.slots;
+		int id = token.id;
+		int mask = (slots.length() >> 1) - 1;
+		for (int index = hash(id) & mask;; index = (index + 1) & mask) {
+			InjectionToken<?> bound = (InjectionToken<?>) slots.get(index << 1);
+			if (bound == null) {
+				return null;
+			}
+			if (bound.id == id) {
+				return (Injectable<?>) slots.get((index << 1) + 1);
+			}
+		}
+	}
+
+	/**
+	 * Adds or replaces the binding of the token.
+	 */
+	synchronized void put(InjectionToken<?> token, Injectable<?> injectable) {
+		AtomicReferenceArray<Object> slots = this.slots;
+		int index = find(slots, token.id);
+		if (slots.get(index << 1) != null) {
+			slots.set((index << 1) + 1, injectable);
+			return;
+		}
+		if (this.tokens.isEmpty()) {
+			this.tokens = new ArrayList<>();
+		}
+		this.tokens.add(token);
+		//at most half of the slots are used, so a lookup always ends at an empty slot
+		if (this.tokens.size() * 2 > slots.length() >> 1) {
+			slots = this.grow(slots);
+			index = find(slots, token.id);
+		}
+		slots.set((index << 1) + 1, injectable);
+		slots.set(index << 1, token);
+		this.slots = slots;
+	}
+
+	synchronized void clear() {
+		this.slots = EMPTY;
+		this.tokens = Collections.emptyList();
+	}
+
+	synchronized int size() {
+		return this.tokens.size();
+	}
+
+	/**
+	 * @return the number of slots, for tests
+	 */
+	int capacity() {
+		return this.slots.length() >> 1;
+	}
+
+	/**
+	 * @return a snapshot of all bindings in the order their tokens were bound
+	 */
+	synchronized Map<InjectionToken<?>, Injectable<?>> asMap() {
+		Map<InjectionToken<?>, Injectable<?>> map = new LinkedHashMap<>();
+		for (InjectionToken<?> token : this.tokens) {
+			map.put(token, this.get(token));
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	private AtomicReferenceArray<Object> grow(AtomicReferenceArray<Object> slots) {
+		AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(slots.length() * 2);
+		for (int i = 0; i < slots.length(); i += 2) {
+			InjectionToken<?> token = (InjectionToken<?>) slots.get(i);
+			if (token != null) {
+				int index = find(grown, token.id);
+				grown.set(index << 1, token);
+				grown.set((index << 1) + 1, slots.get(i + 1));
+			}
+		}
+		return grown;
+	}
+
+	/**
+	 * @return the slot of the id, or the empty slot it would be stored in
+	 */
+	private static int find(AtomicReferenceArray<Object> slots, int id) {
+		int mask = (slots.length() >> 1) - 1;
+		int index = hash(id) & mask;
+		for (InjectionToken<?> bound; (bound = (InjectionToken<?>) slots.get(index << 1)) != null && bound.id != id;) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	/**
+	 * Spreads the consecutive ids of tokens created together over the table.
+	 */
+	private static int hash(int id) {
+		int hash = id * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -1,63 +1,70 @@
 package dev.philipp.depen;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Parameter;
-
-import dev.philipp.depen.InjectionToken.ResolutionScope;
 import dev.philipp.depen.Injector.ResolutionContext;
 
 class ClassInjectable<T> extends Injectable<T> {
 
     private final Class<T> clazz;
 
+    private final InjectionToken<T> token;
+
+    private ConstructionPlan<T> plan;
+
+    private InitializationPlan initializationPlan;
+
     ClassInjectable(Class<T> clazz) {
         this.clazz = clazz;
+        this.token = InjectionToken.of(clazz);
+    }
+
+    Class<T> getClazz() {
+    	return this.clazz;
+    }
+    
+    ConstructionPlan<T> getConstructionPlan() {
+    	ConstructionPlan<T> plan = this.plan;
+    	if (plan == null) {
+    		plan = ConstructionPlan.of(this.clazz);
+    		this.plan = plan;
+    	}
+    	return plan;
+    }
+    
+    InitializationPlan getInitializationPlan() {
+    	InitializationPlan initializationPlan = this.initializationPlan;
+    	if (initializationPlan == null) {
+    		initializationPlan = InitializationPlan.of(this.clazz);
+    		this.initializationPlan = initializationPlan;
+    	}
+    	return initializationPlan;
     }
 
     @Override
-    T resolve(ResolutionContext resolutionContext) {
+    T resolve(Injector injector, ClassTrace classTrace) {
         try {
-        	Constructor<T> noParamConstructor = null;
-        	@SuppressWarnings("unchecked")
-			Constructor<T>[] constructors = (Constructor<T>[]) this.clazz.getConstructors();
-			for (Constructor<T> constructor : constructors) {
-				if (constructor.getParameterCount() == 0) {
-					noParamConstructor = constructor;
-				}
-			}
-			if (noParamConstructor == null && constructors.length != 1) {
-				throw new InjectionException("Injectable Classes need a default constructor or only one");
-			}
-			Constructor<T> constructorOfChoice;
-			if (noParamConstructor != null) {
-				constructorOfChoice = noParamConstructor;				
-			} else {
-				constructorOfChoice = constructors[0];				
+        	ConstructionPlan<T> plan = this.getConstructionPlan();
+        	Dependency[] parameters = plan.parameters;
+			Object[] params = new Object[parameters.length];
+			classTrace.push(this.token.id, this.clazz);
+			for (int i = 0; i < parameters.length; i++) {
+				params[i] = injector.resolve(parameters[i], classTrace);
 			}
-			Class<?>[] paramTypes = new Class[constructorOfChoice.getParameterCount()];
-			Object[] params = new Object[paramTypes.length];
-			resolutionContext.classTrace.push(this.clazz);
-			for (int i = 0; i < constructorOfChoice.getParameters().length; i++) {
-				Parameter parameter = constructorOfChoice.getParameters()[i];
-				Class<?> clazz = parameter.getType();
-				boolean optional = false;
-				Inject injectAnno = parameter.getAnnotation(Inject.class);
-				if (injectAnno != null) {
-					if (injectAnno.value() != Object.class) {
-						clazz = injectAnno.value();
-					}
-					optional = injectAnno.optional();
-				}
-				params[i] = resolutionContext.inject(new InjectionToken<>(clazz, ResolutionScope.CLASS), optional, resolutionContext.classTrace);
-			}
-			T newInstance = constructorOfChoice.newInstance(params);
-			resolutionContext.forClass(this.clazz).provideValue(newInstance);
+			T newInstance = plan.instantiator.newInstance(params);
 //			for (Object parameter : params) {
 //				//running param initialisation after self providing solves circular dependency problems, but leads to uninitialized params being passed to the constructor
 //				resolutionContext.initialize(parameter, resolutionContext);
 //			}
-			resolutionContext.classTrace.pop();
-			resolutionContext.initialize(newInstance, resolutionContext);
+			classTrace.pop();
+			InitializationPlan initializationPlan = this.getInitializationPlan();
+			if (initializationPlan.dependencies.length > 0) {
+				//only the injected fields can see the new instance and its provided classes
+				ResolutionContext resolutionContext = injector.new ResolutionContext(classTrace);
+				resolutionContext.provideSelf(this.token, newInstance);
+				resolutionContext.initialize(newInstance, initializationPlan, resolutionContext);
+			}
+			if (initializationPlan.postConstruct != null) {
+				initializationPlan.postConstruct.call(newInstance);
+			}
 			return newInstance;
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
@@ -1,41 +1,114 @@
 package dev.philipp.depen;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * The single purpose of this collection is to detect a circular dependency resolution at runtime.
  * The dependency injection would work without this, the only side effect is time
+ * <p>
+ * The trace is a stack of token ids, searched linearly on every push. Object graphs are rarely deeper than a few
+ * dozen classes, so the scan is cheaper than hashing. Every thread reuses one trace, see {@link #current()}, so
+ * a resolution does not allocate anything for it. The classes are only kept to describe the path in exceptions.
+ * </p>
  */
 class ClassTrace {
-    private final Deque<Class<?>> stack = new ArrayDeque<>();
-    private final Set<Class<?>> set = new HashSet<>();
-
-    public void push(Class<?> value) {
-        if (set.add(value)) {
-            stack.push(value);
-        } else {
-        	throw new CircularDependencyException(this, value);        	
-        }
-    }
-
-    public Class<?> pop() {
-    	Class<?> value = stack.pop();
-        set.remove(value);
-        return value;
-    }
-
-    public boolean contains(Class<?> value) {
-        return set.contains(value);
-    }
-	
+
+	private static final ThreadLocal<ClassTrace> CURRENT = ThreadLocal.withInitial(ClassTrace::new);
+
+	/**
+	 * A trace that does not detect anything, used once cycle detection was disabled.
+	 */
+	static final ClassTrace DISABLED = new ClassTrace(false);
+
+	private final boolean enabled;
+
+	private int[] ids = new int[16];
+
+	private Class<?>[] classes = new Class<?>[16];
+
+	private int depth;
+
+	ClassTrace() {
+		this(true);
+	}
+
+	private ClassTrace(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return the trace of the calling thread. Callers have to {@link #reset(int)} it to the depth they found,
+	 * even if the resolution fails.
+	 */
+	static ClassTrace current() {
+		return CURRENT.get();
+	}
+
+	public void push(Class<?> value) {
+		this.push(InjectionToken.of(value).id, value);
+	}
+
+	void push(int id, Class<?> value) {
+		if (!this.enabled) {
+			return;
+		}
+		int[] ids = this.ids;
+		int depth = this.depth;
+		for (int i = 0; i < depth; i++) {
+			if (ids[i] == id) {
+				throw new CircularDependencyException(this, value);
+			}
+		}
+		if (depth == ids.length) {
+			this.ids = ids = Arrays.copyOf(ids, depth * 2);
+			this.classes = Arrays.copyOf(this.classes, depth * 2);
+		}
+		ids[depth] = id;
+		this.classes[depth] = value;
+		this.depth = depth + 1;
+	}
+
+	public Class<?> pop() {
+		if (!this.enabled) {
+			return null;
+		}
+		Class<?> value = this.classes[--this.depth];
+		this.classes[this.depth] = null;
+		return value;
+	}
+
+	public boolean contains(Class<?> value) {
+		for (int i = 0; i < this.depth; i++) {
+			if (this.classes[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	int depth() {
+		return this.depth;
+	}
+
+	/**
+	 * Drops everything pushed above the given depth, e.g. by a resolution that failed half way.
+	 */
+	void reset(int depth) {
+		if (this.depth > depth) {
+			Arrays.fill(this.classes, depth, this.depth, null);
+			this.depth = depth;
+		}
+	}
+
 	@Override
 	public String toString() {
-		return stack.stream()
-        .map(Class::getSimpleName)
-        .reduce((a, b) -> a + " -> " + b)
-        .orElse("");
+		StringBuilder path = new StringBuilder();
+		for (int i = this.depth - 1; i >= 0; i--) {
+			if (path.length() > 0) {
+				path.append(" -> ");
+			}
+			path.append(this.classes[i].getSimpleName());
+		}
+		return path.toString();
 	}
 }
@@ -0,0 +1,31 @@
+package dev.philipp.depen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by {@link Injector#close()} once all singletons are closed, if any of them failed to close or did not close
+ * within the close timeout. The causes are attached as suppressed exceptions.
+ */
+public class CloseException extends InjectionException {
+
+	private static final long serialVersionUID = 6283471650298341127L;
+
+	private final List<String> problems;
+
+	CloseException(List<String> problems, List<Throwable> causes) {
+		super(problems.size() + " singleton(s) not closed:\n" + String.join("\n", problems));
+		this.problems = Collections.unmodifiableList(new ArrayList<>(problems));
+		for (Throwable cause : causes) {
+			this.addSuppressed(cause);
+		}
+	}
+
+	/**
+	 * @return one message per singleton that failed to close or timed out
+	 */
+	public List<String> getProblems() {
+		return problems;
+	}
+}
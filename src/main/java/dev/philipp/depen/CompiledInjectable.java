@@ -0,0 +1,46 @@
+package dev.philipp.depen;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * A prototype binding whose whole graph was compiled into a single {@link MethodHandle} by the {@link GraphCompiler}.
+ * Resolutions inside a resolution context, which may provide other instances for some tokens, keep using the plans.
+ */
+class CompiledInjectable<T> extends ClassInjectable<T> {
+
+	private final Injector owner;
+
+	private final InjectionToken<T> token;
+
+	private final MethodHandle handle;
+
+	/**
+	 * @param handle creates a new instance, of type {@code ()Object}
+	 */
+	CompiledInjectable(Class<T> clazz, Injector owner, MethodHandle handle) {
+		super(clazz);
+		this.owner = owner;
+		this.token = InjectionToken.of(clazz);
+		this.handle = handle;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	T resolve(Injector injector, ClassTrace classTrace) {
+		if (injector != this.owner) {
+			return super.resolve(injector, classTrace);
+		}
+		//only the root is traced, circles through the inlined classes were ruled out when compiling
+		classTrace.push(this.token.id, this.getClazz());
+		T instance;
+		try {
+			instance = (T) (Object) this.handle.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new InjectionException(e);
+		}
+		classTrace.pop();
+		return instance;
+	}
+}
@@ -0,0 +1,106 @@
+package dev.philipp.depen;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+
+import dev.philipp.depen.Accessors.Instantiator;
+
+/**
+ * The constructor choice and parameter dependencies of a class.
+ * <p>
+ * Building a plan needs a handful of reflective lookups, so every class gets exactly one plan
+ * which is then reused by all bindings and all injectors. If the annotation processor generated
+ * a {@link GeneratedFactory} for the class, the plan is read from it without any reflection.
+ * </p>
+ *
+ * @param <T> the type constructed by this plan
+ */
+final class ConstructionPlan<T> {
+
+	private static final ClassValue<ConstructionPlan<?>> PLANS = new ClassValue<ConstructionPlan<?>>() {
+		@Override
+		protected ConstructionPlan<?> computeValue(Class<?> type) {
+			return new ConstructionPlan<>(type);
+		}
+	};
+
+	final Instantiator<T> instantiator;
+
+	final Dependency[] parameters;
+
+	private ConstructionPlan(Class<T> clazz) {
+		GeneratedFactory<T> factory = GeneratedFactory.find(clazz);
+		if (factory != null) {
+			this.instantiator = factory.instantiator();
+			this.parameters = Dependency.of(factory.parameterTypes, factory.optionalParameters);
+			return;
+		}
+		Constructor<T> constructor = chooseConstructor(clazz);
+		this.instantiator = Accessors.instantiator(constructor);
+		Parameter[] params = constructor.getParameters();
+		this.parameters = new Dependency[params.length];
+		for (int i = 0; i < params.length; i++) {
+			this.parameters[i] = Dependency.of(params[i].getType(), params[i].getParameterizedType(), params[i].getAnnotation(Inject.class));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> ConstructionPlan<T> of(Class<T> clazz) {
+		return (ConstructionPlan<T>) PLANS.get(clazz);
+	}
+
+	/**
+	 * The constructor marked with {@link Inject}, else the canonical constructor of a record, else the constructor
+	 * without parameters or the only constructor. Non-public constructors are only considered if the class has
+	 * no public one.
+	 */
+	private static <T> Constructor<T> chooseConstructor(Class<T> clazz) {
+		Constructor<T> constructor = findConstructor(clazz);
+		if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+			constructor.setAccessible(true);
+		}
+		return constructor;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Constructor<T> findConstructor(Class<T> clazz) {
+		Constructor<T>[] declared = (Constructor<T>[]) clazz.getDeclaredConstructors();
+		Constructor<T> marked = null;
+		for (Constructor<T> constructor : declared) {
+			if (constructor.isAnnotationPresent(Inject.class)) {
+				if (marked != null) {
+					throw new InjectionException(clazz.getName() + " has more than one constructor marked with @Inject");
+				}
+				marked = constructor;
+			}
+		}
+		if (marked != null) {
+			return marked;
+		}
+		if (Records.isRecord(clazz)) {
+			try {
+				return clazz.getDeclaredConstructor(Records.componentTypes(clazz));
+			} catch (NoSuchMethodException e) {
+				throw new InjectionException("Record " + clazz.getName() + " has no canonical constructor");
+			}
+		}
+		Constructor<T> noParamConstructor = null;
+		Constructor<T>[] constructors = (Constructor<T>[]) clazz.getConstructors();
+		if (constructors.length == 0) {
+			constructors = declared;
+		}
+		for (Constructor<T> constructor : constructors) {
+			if (constructor.getParameterCount() == 0) {
+				noParamConstructor = constructor;
+			}
+		}
+		if (noParamConstructor == null && constructors.length != 1) {
+			throw new InjectionException("Injectable Classes need a default constructor, only one or one marked with @Inject");
+		}
+		if (noParamConstructor != null) {
+			return noParamConstructor;
+		}
+		return constructors[0];
+	}
+}
@@ -0,0 +1,200 @@
+package dev.philipp.depen;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * A single resolved injection site, i.e. a constructor parameter or an annotated field.
+ * The token is built once from the declared type and the optional {@link Inject} annotation.
+ * <p>
+ * Sites declared as {@link Provider}, {@link Supplier} or {@link Lazy}, and interface sites with
+ * {@link Inject#lazy()}, are deferred: they receive a handle that resolves the token later. A raw {@link Provider}
+ * or {@link Supplier} without type argument or {@link Inject#value()} is not deferred, it resolves its own binding.
+ * </p>
+ * <p>
+ * Sites declared as {@code List<E>} or {@code Map<K, V>} resolve the multibinding of their type arguments,
+ * or the binding of the plain {@code List} or {@code Map} class if there is no multibinding.
+ * </p>
+ * <p>
+ * Other sites of a parameterized type, also as the type argument of a deferred site, resolve the binding of their
+ * full type, see {@link TypeLiteral}, or the binding of their raw class if the full type is not provided.
+ * </p>
+ */
+final class Dependency {
+
+	enum Kind {
+		DIRECT, PROVIDER, LAZY, PROXY
+	}
+
+	final InjectionToken<?> token;
+
+	final boolean optional;
+
+	final Kind kind;
+
+	/**
+	 * The token resolved if the token is not provided, or null
+	 */
+	final InjectionToken<?> fallback;
+
+	private final Class<?> declaredType;
+
+	private Dependency(InjectionToken<?> token, boolean optional, Kind kind, InjectionToken<?> fallback, Class<?> declaredType) {
+		this.token = token;
+		this.optional = optional;
+		this.kind = kind;
+		this.fallback = fallback;
+		this.declaredType = declaredType;
+	}
+
+	/**
+	 * @return true if the token is not resolved while the owner is created
+	 */
+	boolean isDeferred() {
+		return this.kind != Kind.DIRECT;
+	}
+
+	static Dependency[] of(Class<?>[] classes, boolean[] optional) {
+		Dependency[] dependencies = new Dependency[classes.length];
+		for (int i = 0; i < classes.length; i++) {
+			dependencies[i] = new Dependency(InjectionToken.of(classes[i]), optional[i], Kind.DIRECT, null, classes[i]);
+		}
+		return dependencies;
+	}
+
+	static Dependency of(Class<?> declaredType, Type genericType, Inject inject) {
+		Class<?> clazz = declaredType;
+		Type type = genericType;
+		Kind kind = Kind.DIRECT;
+		if (declaredType == Provider.class || declaredType == Supplier.class) {
+			kind = Kind.PROVIDER;
+			clazz = typeArgument(genericType);
+			type = genericType instanceof ParameterizedType ? ((ParameterizedType) genericType).getActualTypeArguments()[0] : null;
+		} else if (declaredType == Lazy.class) {
+			kind = Kind.LAZY;
+			clazz = typeArgument(genericType);
+			type = genericType instanceof ParameterizedType ? ((ParameterizedType) genericType).getActualTypeArguments()[0] : null;
+		} else if (inject != null && inject.lazy()) {
+			if (!declaredType.isInterface()) {
+				throw new InjectionException("Lazy injection needs an interface, use Lazy<" + declaredType.getSimpleName() + "> instead");
+			}
+			kind = Kind.PROXY;
+		}
+		boolean optional = false;
+		if (inject != null) {
+			if (inject.value() != Object.class) {
+				clazz = inject.value();
+				type = clazz;
+			}
+			optional = inject.optional();
+		}
+		if (clazz == null && kind == Kind.PROVIDER) {
+			//a raw Provider or Supplier is no deferred site, but a binding of its own like before
+			kind = Kind.DIRECT;
+			clazz = declaredType;
+			type = genericType;
+		}
+		if (clazz == null) {
+			throw new InjectionException(declaredType.getSimpleName() + " needs a type argument or an @Inject value");
+		}
+		InjectionToken<?> token = InjectionToken.of(clazz);
+		if (kind == Kind.DIRECT && clazz == declaredType) {
+			InjectionToken<?> multibinding = multibinding(genericType);
+			if (multibinding != null) {
+				return new Dependency(multibinding, optional, kind, token, declaredType);
+			}
+		}
+		if (type instanceof ParameterizedType) {
+			InjectionToken<?> generic = InjectionToken.generic((ParameterizedType) type);
+			if (generic != null) {
+				return new Dependency(generic, optional, kind, token, declaredType);
+			}
+		}
+		return new Dependency(token, optional, kind, null, declaredType);
+	}
+
+	/**
+	 * Creates the handle of a deferred site.
+	 *
+	 * @param injector the injector or resolution context the owner is created by
+	 */
+	Object defer(Injector injector) {
+		Provider<?> provider;
+		if (this.fallback == null) {
+			provider = () -> injector.inject(this.token, this.optional);
+		} else {
+			provider = () -> {
+				Object value = injector.inject(this.token, true);
+				return value != null ? value : injector.inject(this.fallback, this.optional);
+			};
+		}
+		switch (this.kind) {
+		case PROVIDER:
+			return provider;
+		case LAZY:
+			return new Lazy<>(provider);
+		default:
+			Lazy<?> lazy = new Lazy<>(provider);
+			//the methods of a non public interface can only be invoked once they are made accessible
+			boolean open = !Modifier.isPublic(this.declaredType.getModifiers());
+			InvocationHandler handler = (proxy, method, args) -> {
+				Object target = lazy.get();
+				if (target == null) {
+					throw new InjectionException(this.token + " not provided");
+				}
+				if (open && method.getDeclaringClass() == this.declaredType) {
+					method.setAccessible(true);
+				}
+				try {
+					return method.invoke(target, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			};
+			return Proxy.newProxyInstance(this.declaredType.getClassLoader(), new Class<?>[] {this.declaredType}, handler);
+		}
+	}
+
+	private static InjectionToken<?> multibinding(Type genericType) {
+		if (!(genericType instanceof ParameterizedType)) {
+			return null;
+		}
+		ParameterizedType type = (ParameterizedType) genericType;
+		if (type.getRawType() == List.class) {
+			Class<?> element = typeArgument(type, 0);
+			return element == null ? null : InjectionToken.set(element);
+		}
+		if (type.getRawType() == Map.class) {
+			Class<?> key = typeArgument(type, 0);
+			Class<?> value = typeArgument(type, 1);
+			return key == null || value == null ? null : InjectionToken.map(key, value);
+		}
+		return null;
+	}
+
+	private static Class<?> typeArgument(Type genericType) {
+		if (genericType instanceof ParameterizedType) {
+			return typeArgument((ParameterizedType) genericType, 0);
+		}
+		return null;
+	}
+
+	private static Class<?> typeArgument(ParameterizedType type, int index) {
+		Type argument = type.getActualTypeArguments()[index];
+		if (argument instanceof Class) {
+			return (Class<?>) argument;
+		}
+		if (argument instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) argument).getRawType();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,284 @@
+package dev.philipp.depen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import dev.philipp.depen.InjectionToken.ResolutionScope;
+
+/**
+ * The static dependency graph of the bindings of an {@link Injector}, built from the construction and
+ * initialization plans without creating a single instance.
+ * <p>
+ * Every binding is a node, the elements of a multibinding are part of its node. Bindings of parent injectors are
+ * only used to check for missing bindings. An edge points from a binding to every binding that is resolved while
+ * it is created.
+ * Classes provided by {@link Provide} annotations are not bindings of the Injector, so their dependencies are
+ * added to the binding that provides them. Just like the runtime resolution, the graph also records every
+ * missing binding and every circular dependency, but it collects all of them instead of failing on the first.
+ * Deferred dependencies like {@link Provider} are checked for missing bindings, but add no edge, since they are
+ * not resolved while the binding is created.
+ * </p>
+ */
+final class DependencyGraph {
+
+	static final class Node {
+
+		final InjectionToken<?> token;
+
+		final Injectable<?> injectable;
+
+		final Set<Node> dependencies = new LinkedHashSet<>();
+
+		final Set<Node> dependents = new LinkedHashSet<>();
+
+		Node(InjectionToken<?> token, Injectable<?> injectable) {
+			this.token = token;
+			this.injectable = injectable;
+		}
+
+		boolean isSingleton() {
+			return this.injectable instanceof InstanceInjectable;
+		}
+
+		@Override
+		public String toString() {
+			if (this.token.getScope() == ResolutionScope.CLASS) {
+				return this.token.getClazz().getSimpleName();
+			}
+			return this.token.toString();
+		}
+	}
+
+	private final Injector injector;
+
+	private final Map<InjectionToken<?>, Node> nodes = new LinkedHashMap<>();
+
+	private final List<String> problems = new ArrayList<>();
+
+	private final List<Node> topologicalOrder = new ArrayList<>();
+
+	DependencyGraph(Injector injector) {
+		this.injector = injector;
+		for (Map.Entry<InjectionToken<?>, Injectable<?>> entry : injector.bindings().asMap().entrySet()) {
+			this.nodes.put(entry.getKey(), new Node(entry.getKey(), entry.getValue()));
+		}
+		for (Node node : this.nodes.values()) {
+			if (node.injectable instanceof ClassInjectable) {
+				this.walkClass(node, ((ClassInjectable<?>) node.injectable).getClazz(), null, new ArrayDeque<>());
+			} else if (node.injectable instanceof MultibindingInjectable) {
+				for (Injectable<?> element : ((MultibindingInjectable<?>) node.injectable).getElements()) {
+					if (element instanceof ClassInjectable) {
+						this.walkClass(node, ((ClassInjectable<?>) element).getClazz(), null, new ArrayDeque<>());
+					}
+				}
+			}
+		}
+		for (Node node : this.nodes.values()) {
+			for (Node dependency : node.dependencies) {
+				dependency.dependents.add(node);
+			}
+		}
+		this.sort();
+	}
+
+	Collection<Node> getNodes() {
+		return Collections.unmodifiableCollection(this.nodes.values());
+	}
+
+	Node getNode(InjectionToken<?> token) {
+		return this.nodes.get(token);
+	}
+
+	List<String> getProblems() {
+		return Collections.unmodifiableList(this.problems);
+	}
+
+	/**
+	 * @return all nodes, every node after its dependencies. Nodes on a circle are ordered arbitrarily.
+	 */
+	List<Node> getTopologicalOrder() {
+		return Collections.unmodifiableList(this.topologicalOrder);
+	}
+
+	/**
+	 * @return the singletons that are resolved while the node is created, either directly or through other bindings
+	 * that are not singletons themselves
+	 */
+	Set<Node> getSingletonDependencies(Node node) {
+		return this.getClosestDependencies(node, Node::isSingleton);
+	}
+
+	/**
+	 * @return the matching nodes that are resolved while the node is created, either directly or through other
+	 * nodes that do not match
+	 */
+	Set<Node> getClosestDependencies(Node node, Predicate<Node> filter) {
+		Set<Node> matches = new LinkedHashSet<>();
+		Set<Node> visited = new HashSet<>();
+		Deque<Node> pending = new ArrayDeque<>(node.dependencies);
+		while (!pending.isEmpty()) {
+			Node dependency = pending.pop();
+			if (!visited.add(dependency)) {
+				continue;
+			}
+			if (filter.test(dependency)) {
+				matches.add(dependency);
+			} else {
+				pending.addAll(dependency.dependencies);
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * @throws ValidationException if any problem was found
+	 */
+	void check() {
+		if (!this.problems.isEmpty()) {
+			throw new ValidationException(this.problems);
+		}
+	}
+
+	private void walkClass(Node owner, Class<?> clazz, Overlay overlay, Deque<Class<?>> path) {
+		ConstructionPlan<?> plan;
+		InitializationPlan initializationPlan;
+		try {
+			plan = ConstructionPlan.of(clazz);
+			initializationPlan = InitializationPlan.of(clazz);
+		} catch (InjectionException e) {
+			this.problems.add(clazz.getName() + ": " + e.getMessage());
+			return;
+		}
+		path.addLast(clazz);
+		for (Dependency parameter : plan.parameters) {
+			this.walkDependency(owner, parameter, overlay, path);
+		}
+		if (initializationPlan.dependencies.length > 0) {
+			//the same scope the resolution context of the instance provides to its fields
+			Overlay fieldOverlay = new Overlay(overlay, InjectionToken.of(clazz), initializationPlan.provides);
+			for (Dependency field : initializationPlan.dependencies) {
+				this.walkDependency(owner, field, fieldOverlay, path);
+			}
+		}
+		path.removeLast();
+	}
+
+	private void walkDependency(Node owner, Dependency dependency, Overlay overlay, Deque<Class<?>> path) {
+		for (Overlay level = overlay; level != null; level = level.parent) {
+			Class<?> provided = level.provides.get(dependency.token);
+			if (provided != null) {
+				if (!path.contains(provided)) {
+					//deferred classes are checked for missing bindings, but are not created together with the owner
+					this.walkClass(dependency.isDeferred() ? new Node(dependency.token, null) : owner, provided, level, path);
+				} else if (!dependency.isDeferred()) {
+					this.problems.add("Circular dependency detected: " + describe(path) + " -> " + provided.getSimpleName());
+				}
+				return;
+			}
+			if (level.self.equals(dependency.token) || Injector.INJECTOR_TOKEN.equals(dependency.token)) {
+				return;
+			}
+		}
+		Node node = this.nodes.get(dependency.token);
+		if (node == null && dependency.fallback != null && !this.isProvidedByParent(dependency.token)) {
+			node = this.nodes.get(dependency.fallback);
+			if (node == null && this.isProvidedByParent(dependency.fallback)) {
+				return;
+			}
+		}
+		if (node == null) {
+			if (!dependency.optional && !this.isProvidedByParent(dependency.token)) {
+				this.problems.add(dependency.token + " not provided: " + describe(path));
+			}
+			return;
+		}
+		if (!dependency.isDeferred()) {
+			owner.dependencies.add(node);
+		}
+	}
+
+	private boolean isProvidedByParent(InjectionToken<?> token) {
+		for (Injector parent = this.injector.getParent(); parent != null; parent = parent.getParent()) {
+			if (parent.binding(token) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void sort() {
+		Map<Node, Boolean> visited = new HashMap<>();
+		Deque<Node> stack = new ArrayDeque<>();
+		for (Node node : this.nodes.values()) {
+			this.visit(node, visited, stack);
+		}
+	}
+
+	private void visit(Node node, Map<Node, Boolean> visited, Deque<Node> stack) {
+		Boolean done = visited.get(node);
+		if (done != null) {
+			if (!done) {
+				StringBuilder circle = new StringBuilder("Circular dependency detected: ");
+				boolean inCircle = false;
+				for (Node element : stack) {
+					inCircle |= element == node;
+					if (inCircle) {
+						circle.append(element).append(" -> ");
+					}
+				}
+				this.problems.add(circle.append(node).toString());
+			}
+			return;
+		}
+		visited.put(node, false);
+		stack.addLast(node);
+		for (Node dependency : node.dependencies) {
+			this.visit(dependency, visited, stack);
+		}
+		stack.removeLast();
+		visited.put(node, true);
+		this.topologicalOrder.add(node);
+	}
+
+	private static String describe(Deque<Class<?>> path) {
+		StringBuilder description = new StringBuilder();
+		for (Class<?> clazz : path) {
+			if (description.length() > 0) {
+				description.append(" -> ");
+			}
+			description.append(clazz.getSimpleName());
+		}
+		return description.toString();
+	}
+
+	/**
+	 * The static counterpart of a resolution context: the instance under construction and its provided classes.
+	 */
+	private static final class Overlay {
+
+		final Overlay parent;
+
+		final InjectionToken<?> self;
+
+		final Map<InjectionToken<?>, Class<?>> provides = new HashMap<>();
+
+		Overlay(Overlay parent, InjectionToken<?> self, Class<?>[] provides) {
+			this.parent = parent;
+			this.self = self;
+			for (Class<?> provide : provides) {
+				this.provides.put(InjectionToken.of(provide), provide);
+			}
+		}
+	}
+}
@@ -2,8 +2,6 @@ package dev.philipp.depen;
 
 import java.util.function.Function;
 
-import dev.philipp.depen.Injector.ResolutionContext;
-
 class FactoryInjectable<T> extends Injectable<T> {
 
 	private Function<Injector, ? extends T> factory;
@@ -13,8 +11,8 @@ class FactoryInjectable<T> extends Injectable<T> {
 	}
 	
 	@Override
-	T resolve(ResolutionContext resolutionContext) {
-		return this.factory.apply(resolutionContext);
+	T resolve(Injector injector, ClassTrace classTrace) {
+		return this.factory.apply(injector);
 	}
 
 }
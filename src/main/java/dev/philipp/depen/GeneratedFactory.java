@@ -0,0 +1,121 @@
+package dev.philipp.depen;
+
+import java.lang.reflect.InvocationTargetException;
+
+import dev.philipp.depen.Accessors.FieldWriter;
+import dev.philipp.depen.Accessors.Instantiator;
+
+/**
+ * Base class of the factories generated by the depen annotation processor.
+ * <p>
+ * For a class {@code com.example.Service} the processor generates {@code com.example.Service$$DepenFactory},
+ * which describes the constructor parameters, the injected fields and the {@link Provide} list, and creates
+ * instances and writes fields with plain Java code. The {@link Injector} uses such a factory instead of
+ * reflection whenever it exists. This class is not meant to be extended by hand.
+ * </p>
+ *
+ * @param <T> the type created by the factory
+ */
+public abstract class GeneratedFactory<T> {
+
+	static final String SUFFIX = "$$DepenFactory";
+
+	private static final ClassValue<GeneratedFactory<?>> FACTORIES = new ClassValue<GeneratedFactory<?>>() {
+		@Override
+		protected GeneratedFactory<?> computeValue(Class<?> type) {
+			return load(type);
+		}
+	};
+
+	final Class<?>[] parameterTypes;
+
+	final boolean[] optionalParameters;
+
+	final String[] fieldNames;
+
+	final Class<?>[] fieldTypes;
+
+	final boolean[] optionalFields;
+
+	final Class<?>[] provides;
+
+	/**
+	 * @param parameterTypes the classes to inject into the constructor parameters
+	 * @param optionalParameters whether the constructor parameters are optional
+	 * @param fieldNames the names of the injected fields, superclass fields first
+	 * @param fieldTypes the classes to inject into the fields
+	 * @param optionalFields whether the fields are optional
+	 * @param provides the classes provided by {@link Provide} annotations
+	 */
+	protected GeneratedFactory(Class<?>[] parameterTypes, boolean[] optionalParameters,
+			String[] fieldNames, Class<?>[] fieldTypes, boolean[] optionalFields, Class<?>[] provides) {
+		this.parameterTypes = parameterTypes;
+		this.optionalParameters = optionalParameters;
+		this.fieldNames = fieldNames;
+		this.fieldTypes = fieldTypes;
+		this.optionalFields = optionalFields;
+		this.provides = provides;
+	}
+
+	/**
+	 * Calls the injectable constructor.
+	 *
+	 * @param args the resolved constructor parameters
+	 * @return the new instance
+	 */
+	protected abstract T newInstance(Object[] args);
+
+	/**
+	 * Writes an injected field.
+	 *
+	 * @param instance the instance to initialize
+	 * @param index the index of the field in the field names
+	 * @param value the resolved value
+	 */
+	protected abstract void setField(T instance, int index, Object value);
+
+	Instantiator<T> instantiator() {
+		return args -> {
+			try {
+				return this.newInstance(args);
+			} catch (RuntimeException | Error e) {
+				//same contract as Constructor#newInstance
+				throw new InvocationTargetException(e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	FieldWriter writer(int index) {
+		return (target, value) -> {
+			try {
+				this.setField((T) target, index, value);
+			} catch (ClassCastException e) {
+				throw new InjectionException(e);
+			}
+		};
+	}
+
+	/**
+	 * @return the generated factory of the class or null, if the annotation processor did not run for it
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> GeneratedFactory<T> find(Class<T> clazz) {
+		//looked up once per class, the construction and the initialization plan both ask for it
+		return (GeneratedFactory<T>) FACTORIES.get(clazz);
+	}
+
+	private static GeneratedFactory<?> load(Class<?> clazz) {
+		if (clazz.isPrimitive() || clazz.isArray()) {
+			return null;
+		}
+		try {
+			Class<?> factoryClass = Class.forName(clazz.getName() + SUFFIX, true, clazz.getClassLoader());
+			return (GeneratedFactory<?>) factoryClass.getConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new InjectionException("Generated factory of " + clazz.getName() + " can not be used", e);
+		}
+	}
+}
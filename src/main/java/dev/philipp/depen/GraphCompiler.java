@@ -0,0 +1,174 @@
+package dev.philipp.depen;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import dev.philipp.depen.Accessors.FieldWriter;
+import dev.philipp.depen.Accessors.Instantiator;
+import dev.philipp.depen.Accessors.MethodCaller;
+
+/**
+ * Compiles the graph of a prototype binding into one {@link MethodHandle} of type {@code ()Object}, which creates
+ * the whole prototype subgraph without a single binding lookup, so the JIT can inline it like hand written code.
+ * The plans are bound through their handle accessors right away, a compiled graph is meant to be hot.
+ * <p>
+ * Prototypes of plain classes are inlined, values and singletons are embedded as constants, singletons are created
+ * for that. Everything else, e.g. factories, scoped or deferred dependencies and multibindings, is resolved by the
+ * Injector as usual. So is a binding looked up through a parent that is not frozen yet, since the parent may still
+ * provide or replace it. Classes with {@link Provide} annotations are not inlined, and neither is a field graph that
+ * would see the instance under construction or would have to be resolved by the Injector.
+ * </p>
+ */
+final class GraphCompiler {
+
+	private static final MethodHandle INSTANTIATE;
+
+	private static final MethodHandle WRITE;
+
+	private static final MethodHandle CALL;
+
+	private static final MethodHandle RESOLVE;
+
+	private static final MethodHandle RETHROW;
+
+	static {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			INSTANTIATE = lookup.findVirtual(Instantiator.class, "newInstance",
+					MethodType.methodType(Object.class, Object[].class));
+			WRITE = lookup.findVirtual(FieldWriter.class, "set",
+					MethodType.methodType(void.class, Object.class, Object.class));
+			CALL = lookup.findVirtual(MethodCaller.class, "call", MethodType.methodType(void.class, Object.class));
+			RESOLVE = lookup.findStatic(GraphCompiler.class, "resolve",
+					MethodType.methodType(Object.class, Injector.class, Dependency.class));
+			RETHROW = lookup.findStatic(GraphCompiler.class, "rethrow",
+					MethodType.methodType(Object.class, ReflectiveOperationException.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private GraphCompiler() {
+	}
+
+	/**
+	 * @return the handle creating an instance of the class with all dependencies resolved in the owner,
+	 * or null if the class can not be compiled
+	 */
+	static MethodHandle compile(Injector owner, Class<?> clazz) {
+		return compileClass(owner, clazz, new ArrayDeque<>());
+	}
+
+	/**
+	 * @param selves the tokens of the instances whose fields are being resolved, a resolution context provides them
+	 */
+	private static MethodHandle compileClass(Injector owner, Class<?> clazz, Deque<InjectionToken<?>> selves) {
+		ConstructionPlan<?> plan = ConstructionPlan.of(clazz);
+		InitializationPlan initializationPlan = InitializationPlan.of(clazz);
+		if (initializationPlan.provides.length > 0) {
+			return null;
+		}
+		Dependency[] parameters = plan.parameters;
+		MethodHandle instance = MethodHandles.catchException(
+				INSTANTIATE.bindTo(Accessors.hot(plan.instantiator)).asCollector(Object[].class, parameters.length),
+				ReflectiveOperationException.class,
+				MethodHandles.dropArguments(RETHROW, 1, MethodType.genericMethodType(parameters.length).parameterList()));
+		//the outermost argument is resolved first, so the parameters are resolved in order
+		for (int i = parameters.length - 1; i >= 0; i--) {
+			MethodHandle parameter = compileDependency(owner, parameters[i], selves);
+			if (parameter == null) {
+				return null;
+			}
+			instance = MethodHandles.collectArguments(instance, i, parameter);
+		}
+		MethodHandle initialize = MethodHandles.identity(Object.class);
+		if (initializationPlan.postConstruct != null) {
+			initialize = MethodHandles.foldArguments(initialize, CALL.bindTo(Accessors.hot(initializationPlan.postConstruct)));
+		}
+		Dependency[] fields = initializationPlan.dependencies;
+		if (fields.length > 0) {
+			selves.push(InjectionToken.of(clazz));
+			for (int i = fields.length - 1; i >= 0; i--) {
+				MethodHandle value = compileDependency(owner, fields[i], selves);
+				if (value == null) {
+					return null;
+				}
+				initialize = MethodHandles.foldArguments(initialize,
+						MethodHandles.collectArguments(WRITE.bindTo(Accessors.hot(initializationPlan.writers[i])), 1, value));
+			}
+			selves.pop();
+		}
+		return MethodHandles.filterReturnValue(instance, initialize);
+	}
+
+	private static MethodHandle compileDependency(Injector injector, Dependency dependency, Deque<InjectionToken<?>> selves) {
+		if (selves.contains(dependency.token) || (dependency.fallback != null && selves.contains(dependency.fallback))) {
+			return null;
+		}
+		if (!selves.isEmpty() && Injector.INJECTOR_TOKEN.equals(dependency.token)) {
+			//a field gets the resolution context of its instance
+			return null;
+		}
+		if (!dependency.isDeferred()) {
+			InjectionToken<?> token = dependency.token;
+			if (dependency.fallback != null) {
+				//the fallback is only chosen once if no parent can provide the token later
+				token = isFrozen(injector) ? (injector.owner(token) == null ? dependency.fallback : token) : null;
+			}
+			//a binding of a parent that is not frozen may still be replaced or shadowed, it is resolved dynamically
+			for (Injector current = injector; token != null && current != null && current.isFrozen(); current = current.getParent()) {
+				Injectable<?> injectable = current.binding(token);
+				if (injectable == null) {
+					if (current.getParent() != null && Injector.INJECTOR_TOKEN.equals(token)) {
+						return MethodHandles.constant(Object.class, current);
+					}
+					continue;
+				}
+				if (injectable.getClass() == ClassInjectable.class || injectable.getClass() == CompiledInjectable.class) {
+					MethodHandle inlined = compileClass(current, ((ClassInjectable<?>) injectable).getClazz(), selves);
+					if (inlined != null) {
+						return inlined;
+					}
+				} else if (injectable.getClass() == ValueInjectable.class || injectable.getClass() == InstanceInjectable.class) {
+					return MethodHandles.constant(Object.class, current.resolve(injectable));
+				}
+				break;
+			}
+		}
+		if (!selves.isEmpty()) {
+			//outside of the resolution context, the Injector would not see the instances under construction
+			return null;
+		}
+		return MethodHandles.insertArguments(RESOLVE, 0, injector, dependency);
+	}
+
+	/**
+	 * @return true if the injector and all its parents are frozen
+	 */
+	private static boolean isFrozen(Injector injector) {
+		for (Injector current = injector; current != null; current = current.getParent()) {
+			if (!current.isFrozen()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Object resolve(Injector injector, Dependency dependency) {
+		ClassTrace classTrace = injector.trace();
+		int depth = classTrace.depth();
+		try {
+			return injector.resolve(dependency, classTrace);
+		} finally {
+			classTrace.reset(depth);
+		}
+	}
+
+	private static Object rethrow(ReflectiveOperationException e) {
+		//same as a class binding
+		throw new RuntimeException(e);
+	}
+}
@@ -0,0 +1,138 @@
+package dev.philipp.depen;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import dev.philipp.depen.Accessors.FieldWriter;
+import dev.philipp.depen.Accessors.MethodCaller;
+
+/**
+ * The {@link Provide} list, the {@link Inject} annotated fields and the {@link PostConstruct} methods of a class,
+ * including the ones declared by its superclasses.
+ * <p>
+ * Like the {@link ConstructionPlan}, every class gets exactly one plan, so {@link Injector#initialize(Object)}
+ * does not repeat any annotation lookups, and a {@link GeneratedFactory} replaces the reflection entirely.
+ * </p>
+ */
+final class InitializationPlan {
+
+	private static final ClassValue<InitializationPlan> PLANS = new ClassValue<InitializationPlan>() {
+		@Override
+		protected InitializationPlan computeValue(Class<?> type) {
+			return new InitializationPlan(type);
+		}
+	};
+
+	final Class<?>[] provides;
+
+	final String[] names;
+
+	final FieldWriter[] writers;
+
+	final Dependency[] dependencies;
+
+	/**
+	 * Calls all {@link PostConstruct} methods, null if there are none
+	 */
+	final MethodCaller postConstruct;
+
+	private InitializationPlan(Class<?> clazz) {
+		GeneratedFactory<?> factory = GeneratedFactory.find(clazz);
+		if (factory != null) {
+			this.provides = factory.provides;
+			this.names = factory.fieldNames;
+			this.writers = new FieldWriter[this.names.length];
+			for (int i = 0; i < this.names.length; i++) {
+				this.writers[i] = factory.writer(i);
+			}
+			this.dependencies = Dependency.of(factory.fieldTypes, factory.optionalFields);
+			//the processor does not generate factories for classes with post construct methods
+			this.postConstruct = null;
+			return;
+		}
+		Provide[] provideAnnotations = clazz.getAnnotationsByType(Provide.class);
+		this.provides = new Class<?>[provideAnnotations.length];
+		for (int i = 0; i < provideAnnotations.length; i++) {
+			this.provides[i] = provideAnnotations[i].value();
+		}
+		List<Field> fields = new ArrayList<>();
+		List<Dependency> dependencies = new ArrayList<>();
+		collectFields(clazz, fields, dependencies);
+		this.names = new String[fields.size()];
+		this.writers = new FieldWriter[fields.size()];
+		for (int i = 0; i < this.writers.length; i++) {
+			this.names[i] = fields.get(i).getName();
+			this.writers[i] = Accessors.writer(fields.get(i));
+		}
+		this.dependencies = dependencies.toArray(new Dependency[0]);
+		List<MethodCaller> postConstructs = new ArrayList<>();
+		collectPostConstructs(clazz, postConstructs, new HashSet<>());
+		if (postConstructs.isEmpty()) {
+			this.postConstruct = null;
+		} else if (postConstructs.size() == 1) {
+			this.postConstruct = postConstructs.get(0);
+		} else {
+			MethodCaller[] callers = postConstructs.toArray(new MethodCaller[0]);
+			this.postConstruct = target -> {
+				for (MethodCaller caller : callers) {
+					caller.call(target);
+				}
+			};
+		}
+	}
+
+	static InitializationPlan of(Class<?> clazz) {
+		return PLANS.get(clazz);
+	}
+
+	/**
+	 * Collects superclass methods first. A method overridden by a subclass is called once, at the position of the
+	 * superclass method, since the call dispatches to the override anyway.
+	 */
+	private static void collectPostConstructs(Class<?> clazz, List<MethodCaller> callers, Set<String> overridable) {
+		if (clazz == null || clazz == Object.class) {
+			return;
+		}
+		collectPostConstructs(clazz.getSuperclass(), callers, overridable);
+		for (Method method : clazz.getDeclaredMethods()) {
+			if (!method.isAnnotationPresent(PostConstruct.class)) {
+				continue;
+			}
+			if (method.getParameterCount() > 0 || Modifier.isStatic(method.getModifiers())) {
+				throw new InjectionException("PostConstruct method " + method.getName() + " of " + clazz.getName()
+						+ " must not be static and must not have parameters");
+			}
+			if (!Modifier.isPrivate(method.getModifiers()) && !overridable.add(method.getName())) {
+				continue;
+			}
+			method.setAccessible(true);
+			callers.add(Accessors.caller(method));
+		}
+	}
+
+	private static void collectFields(Class<?> clazz, List<Field> fields, List<Dependency> dependencies) {
+		if (clazz == null || clazz == Object.class) {
+			return;
+		}
+		//superclass fields first, they are usually expected to be set before the subclass fields
+		collectFields(clazz.getSuperclass(), fields, dependencies);
+		if (Records.isRecord(clazz)) {
+			//record components are passed to the canonical constructor, @Inject on them only reaches the fields as well
+			return;
+		}
+		for (Field field : clazz.getDeclaredFields()) {
+			Inject inject = field.getAnnotation(Inject.class);
+			if (inject == null) {
+				continue;
+			}
+			field.setAccessible(true);
+			fields.add(field);
+			dependencies.add(Dependency.of(field.getType(), field.getGenericType(), inject));
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package dev.philipp.depen;
 
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.PARAMETER;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
@@ -7,10 +8,23 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
+/**
+ * Marks a field to inject, or customizes the injection of a constructor parameter.
+ * <p>
+ * On a constructor it selects the constructor the Injector calls, regardless of its visibility and of any other
+ * constructor. The attributes have no meaning on a constructor.
+ * </p>
+ */
 @Retention(RUNTIME)
-@Target({FIELD, PARAMETER})
+@Target({FIELD, PARAMETER, CONSTRUCTOR})
 public @interface Inject {
 	Class<?> value() default Object.class;
 	
 	boolean optional() default false;
+	
+	/**
+	 * Injects a proxy that resolves the binding on its first method call. Only works for interfaces,
+	 * other types can be injected as {@link Lazy} or {@link Provider} instead.
+	 */
+	boolean lazy() default false;
 }
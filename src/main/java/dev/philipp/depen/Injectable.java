@@ -1,8 +1,24 @@
 package dev.philipp.depen;
 
-import dev.philipp.depen.Injector.ResolutionContext;
-
 abstract class Injectable<T> {
 
-    abstract T resolve(ResolutionContext resolutionContext);
+	/**
+	 * @param injector the injector or resolution context the binding was found in
+	 * @param classTrace the trace of the current resolution
+	 */
+    abstract T resolve(Injector injector, ClassTrace classTrace);
+
+    /**
+     * @return true if every resolution returns the same instance
+     */
+    boolean isShared() {
+    	return false;
+    }
+
+    /**
+     * @return true if the next resolution returns an existing instance without creating anything
+     */
+    boolean isCached() {
+    	return false;
+    }
 }
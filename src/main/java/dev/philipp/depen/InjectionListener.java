@@ -0,0 +1,24 @@
+package dev.philipp.depen;
+
+/**
+ * Observes every binding an {@link Injector} resolves, see {@link Injector#setListener(InjectionListener)}.
+ * <p>
+ * The listener is called on the injecting thread, after the binding was resolved, for the injected binding as well
+ * as for every dependency resolved along the way. The time of a binding includes the time of its dependencies.
+ * Implementations must be thread safe and should be fast, they are part of every injection.
+ * </p>
+ *
+ * @see ResolutionMetrics
+ * @see JfrInjectionListener
+ */
+@FunctionalInterface
+public interface InjectionListener {
+
+	/**
+	 * @param token the token of the resolved binding
+	 * @param cached true if an existing instance was returned, i.e. a value, a singleton that was already created or
+	 * a cached multibinding
+	 * @param nanos the time the resolution took
+	 */
+	void resolved(InjectionToken<?> token, boolean cached, long nanos);
+}
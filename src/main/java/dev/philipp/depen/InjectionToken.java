@@ -1,6 +1,11 @@
 package dev.philipp.depen;
 
-import java.util.Objects;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a unique token for dependency injection.
@@ -20,6 +25,16 @@ import java.util.Objects;
  * BigDecimal value = injector.inject(token); // returns BigDecimal.TEN
  * }</pre>
  *
+ * <p>
+ * Every token has a dense integer id, which the {@link Injector} uses as index into its binding table.
+ * Class scoped tokens are interned, so all tokens of the same class share one id. Every custom token gets an id
+ * of its own, so custom tokens should be created once, e.g. as constants, not per injection.
+ * </p>
+ * <p>
+ * Tokens of parameterized types, see {@link #of(TypeLiteral)}, are interned as well: every equal type, captured by a
+ * {@link TypeLiteral} or read from a field or constructor parameter, is mapped to the same token.
+ * </p>
+ *
  * @param <T> the type of object the token refers to
  */
 public class InjectionToken<T> {
@@ -28,13 +43,44 @@ public class InjectionToken<T> {
      * Defines the resolution scope of an injection token.
      */
 	enum ResolutionScope {
-		CLASS, TOKEN
+		CLASS, TOKEN, SET, MAP, GENERIC
 	}
 
+    private static final AtomicInteger IDS = new AtomicInteger();
+    
+    private static final ClassValue<InjectionToken<?>> CLASS_TOKENS = new ClassValue<InjectionToken<?>>() {
+    	@Override
+    	protected InjectionToken<?> computeValue(Class<?> type) {
+    		return new InjectionToken<>(type, null, ResolutionScope.CLASS, "", IDS.getAndIncrement());
+    	}
+    };
+    
+    private static final ClassValue<InjectionToken<?>> SET_TOKENS = new ClassValue<InjectionToken<?>>() {
+    	@Override
+    	protected InjectionToken<?> computeValue(Class<?> type) {
+    		return new InjectionToken<>(type, null, ResolutionScope.SET, "", IDS.getAndIncrement());
+    	}
+    };
+    
+    private static final ClassValue<Map<Class<?>, InjectionToken<?>>> MAP_TOKENS = new ClassValue<Map<Class<?>, InjectionToken<?>>>() {
+    	@Override
+    	protected Map<Class<?>, InjectionToken<?>> computeValue(Class<?> type) {
+    		return new ConcurrentHashMap<>();
+    	}
+    };
+    
+    private static final Map<Type, InjectionToken<?>> GENERIC_TOKENS = new ConcurrentHashMap<>();
+    
+    final int id;
+    
     private final Class<T> clazz;
     
+    private final Class<?> keyClazz;
+    
     private final ResolutionScope scope;
     
+    private final Type type;
+    
     private final String description;
     
     /**
@@ -53,27 +99,121 @@ public class InjectionToken<T> {
     	return new InjectionToken<T>(clazz, ResolutionScope.TOKEN, description);
     }
     
+    /**
+     * Returns the token of a generic type, e.g. {@code InjectionToken.of(new TypeLiteral<Cache<User>>() {})}.
+     * Equal types always get the same token, which is also used for fields and constructor parameters of that type.
+     *
+     * @param <T> the type of object that will be provided or injected
+     * @param type the captured type
+     * @return the interned token of the type
+     * @throws InjectionException if the type contains wildcards or type variables
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> InjectionToken<T> of(TypeLiteral<T> type) {
+    	InjectionToken<T> token = type.token;
+    	if (token != null) {
+    		return token;
+    	}
+    	if (type.getType() instanceof Class) {
+    		token = of((Class<T>) type.getType());
+    	} else {
+    		token = (InjectionToken<T>) generic((ParameterizedType) type.getType());
+    		if (token == null) {
+    			throw new InjectionException(type + " can not be a key, only classes and parameterized types can be type arguments");
+    		}
+    	}
+    	type.token = token;
+    	return token;
+    }
+    
+    /**
+     * @return the interned token of the parameterized type, or null if the type can not be a key
+     */
+    static InjectionToken<?> generic(ParameterizedType type) {
+    	InjectionToken<?> token = GENERIC_TOKENS.get(type);
+    	if (token != null) {
+    		return token;
+    	}
+    	Type canonical = TypeLiteral.canonicalize(type);
+    	if (canonical == null) {
+    		return null;
+    	}
+    	return GENERIC_TOKENS.computeIfAbsent(canonical, key -> new InjectionToken<>(
+    			(Class<?>) ((ParameterizedType) key).getRawType(), null, ResolutionScope.GENERIC, "", IDS.getAndIncrement(), key));
+    }
+    
+    /**
+     * @return the interned class scoped token of the class
+     */
+    @SuppressWarnings("unchecked")
+    static <T> InjectionToken<T> of(Class<T> clazz) {
+    	return (InjectionToken<T>) CLASS_TOKENS.get(clazz);
+    }
+    
+    /**
+     * @return the interned token of the set multibinding of the element class
+     */
+    @SuppressWarnings("unchecked")
+    static <E> InjectionToken<List<E>> set(Class<E> elementClazz) {
+    	return (InjectionToken<List<E>>) SET_TOKENS.get(elementClazz);
+    }
+    
+    /**
+     * @return the interned token of the map multibinding of the key and value classes
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> InjectionToken<Map<K, V>> map(Class<K> keyClazz, Class<V> valueClazz) {
+    	return (InjectionToken<Map<K, V>>) MAP_TOKENS.get(valueClazz).computeIfAbsent(keyClazz,
+    			key -> new InjectionToken<>(valueClazz, key, ResolutionScope.MAP, "", IDS.getAndIncrement()));
+    }
+    
+    /**
+     * Class scoped tokens created by this constructor are equal to the interned token and share its id.
+     */
     InjectionToken(Class<T> clazz, ResolutionScope scope) {
-        this.clazz = clazz;
-        this.scope = scope;
-        this.description = "";
+        this(clazz, scope, "");
     }
 
     InjectionToken(Class<T> clazz, ResolutionScope scope, String description) {
+        this(clazz, null, scope, description, scope == ResolutionScope.CLASS ? of(clazz).id : IDS.getAndIncrement());
+    }
+
+    private InjectionToken(Class<T> clazz, Class<?> keyClazz, ResolutionScope scope, String description, int id) {
+        this(clazz, keyClazz, scope, description, id, null);
+    }
+
+    private InjectionToken(Class<T> clazz, Class<?> keyClazz, ResolutionScope scope, String description, int id, Type type) {
         this.clazz = clazz;
+        this.keyClazz = keyClazz;
         this.scope = scope;
         this.description = description;
+        this.id = id;
+        this.type = type;
+    }
+    
+    Class<T> getClazz() {
+    	return this.clazz;
+    }
+    
+    ResolutionScope getScope() {
+    	return this.scope;
+    }
+    
+    /**
+     * @return the canonical parameterized type of a generic token, null otherwise
+     */
+    ParameterizedType getType() {
+    	return (ParameterizedType) this.type;
     }
     
     @Override
     public int hashCode() {
-    	if (this.scope == ResolutionScope.CLASS) {
-    		return Objects.hash(clazz);        		
-    	} else {
-    		return super.hashCode();
-    	}
+    	return this.id;
     }
     
+    /**
+     * Tokens are equal if they have the same id, i.e. custom tokens only equal themselves.
+     */
     @Override
     public boolean equals(Object obj) {
     	if (this == obj) {
@@ -82,17 +222,19 @@ public class InjectionToken<T> {
     	if (obj == null || getClass() != obj.getClass()) {
     		return false;
     	}
-    	if (this.scope == ResolutionScope.CLASS) {
-    		InjectionToken<?> other = (InjectionToken<?>) obj;
-    		return Objects.equals(this.clazz, other.clazz);
-    	}
-    	return false;
+    	return this.id == ((InjectionToken<?>) obj).id;
     }
     
     @Override
     public String toString() {
     	if (this.scope == ResolutionScope.CLASS) {
     		return "Class " + this.clazz.getName();    		
+    	} else if (this.scope == ResolutionScope.SET) {
+    		return "Set of " + this.clazz.getName();
+    	} else if (this.scope == ResolutionScope.MAP) {
+    		return "Map of " + this.keyClazz.getName() + " to " + this.clazz.getName();
+    	} else if (this.scope == ResolutionScope.GENERIC) {
+    		return "Type " + this.type.getTypeName();
     	} else {
     		return "Token " + this.description + " of type " + this.clazz.getName();    		
     	}
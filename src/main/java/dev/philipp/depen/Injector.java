@@ -1,11 +1,22 @@
 package dev.philipp.depen;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
-import dev.philipp.depen.InjectionToken.ResolutionScope;
+import dev.philipp.depen.Accessors.FieldWriter;
 
 /**
  * <p>
@@ -25,6 +36,7 @@ import dev.philipp.depen.InjectionToken.ResolutionScope;
  *     <li>Constructor injection, automatically resolving constructor parameters</li>
  *     <li>Class-based multi-provision using {@link dev.philipp.depen.Provide}</li>
  *     <li>Optional injection, where a dependency may be null if not provided</li>
+ *     <li>Set and map multibindings, collecting several bindings into one {@code List} or {@code Map}</li>
  * </ul>
  * </p>
  * <p><b>Direct usage examples:</b></p>
@@ -78,16 +90,126 @@ import dev.philipp.depen.InjectionToken.ResolutionScope;
  * 
  * }</pre>
  * 
+ * <p><b>Thread safety:</b></p>
+ * <p>
+ * An Injector can be shared between threads. Bindings are kept in an immutable table indexed by token id, which is
+ * replaced on every new binding, so lookups never lock,
+ * and every singleton provided by {@link InjectionPoint#provideInstanceOf(Class)} is created exactly once.
+ * </p>
  */
-public class Injector {
-    protected Map<InjectionToken<?>, Injectable<?>> injectables = new HashMap<>();
+public class Injector implements AutoCloseable {
+	
+	static final InjectionToken<Injector> INJECTOR_TOKEN = InjectionToken.of(Injector.class);
+	
+	private static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(30);
+	
+    private final BindingTable bindings = new BindingTable();
+    
+    private volatile boolean frozen;
+    
+    private final Injector parent;
+    
+    private volatile boolean closed;
+    
+    private volatile InjectionListener listener;
+    
+    private volatile boolean cycleDetection = true;
+    
+    private volatile Duration closeTimeout = DEFAULT_CLOSE_TIMEOUT;
     
     /**
      * Creates a new Injector and automatically provides itself as an injectable.
      */
     public Injector() {
+    	this.parent = null;
 		this.forClass(Injector.class).provideValue(this);
 	}
+    
+    /**
+     * Creates an Injector without any bindings, not even itself.
+     */
+    Injector(Injector parent) {
+    	this.parent = parent;
+    }
+    
+    /**
+     * Creates a child Injector, e.g. for a single request. Everything not provided by the child itself is looked up
+     * in this Injector, without copying any binding. Singletons provided by the child only live as long as the child,
+     * singletons of this Injector are shared.
+     * <p>
+     * Creating a child only allocates the child itself, it starts with the shared empty binding table. Bindings of this Injector are resolved
+     * inside this Injector, so they can not see the bindings of the child.
+     * </p>
+     *
+     * @return a new child Injector, which injects itself as {@link Injector}
+     */
+    public Injector createChild() {
+    	Injector child = new Injector(this);
+    	child.listener = this.listener;
+    	child.closeTimeout = this.closeTimeout;
+    	return child;
+    }
+    
+    /**
+     * @return the Injector this one was created by with {@link #createChild()}, or null
+     */
+    public Injector getParent() {
+    	return this.parent;
+    }
+    
+    /**
+     * Closes this Injector and releases all its bindings, including the singletons it created.
+     * Afterwards nothing can be provided or injected anymore, the parent Injector is not affected.
+     * <p>
+     * Every singleton provided by {@link InjectionPoint#provideInstanceOf(Class)}, added to a multibinding by
+     * {@code addInstanceOf} or {@code putInstanceOf}, or completed by {@link InjectionPoint#provideAsync(Function)},
+     * that was created and is {@link AutoCloseable} is closed in reverse dependency order: a singleton is closed after
+     * all singletons that depend on it. Independent singletons are closed in parallel, each one within the
+     * {@linkplain #setCloseTimeout(Duration) close timeout}. A close call that does not finish in time is
+     * interrupted and left running on its daemon thread. Values are not closed, they are owned by the caller.
+     * Closing an Injector a second time does nothing.
+     * </p>
+     *
+     * @throws CloseException once all singletons are closed, if any of them failed to close or timed out
+     */
+    @Override
+    public void close() {
+    	Shutdown shutdown;
+    	synchronized (this) {
+    		if (this.closed) {
+    			return;
+    		}
+    		this.closed = true;
+    		shutdown = new Shutdown(this, this.closeTimeout);
+    		for (Injectable<?> injectable : this.bindings.asMap().values()) {
+    			if (injectable instanceof ScopedInjectable) {
+    				((ScopedInjectable<?>) injectable).release();
+    			}
+    		}
+    		this.bindings.clear();
+    	}
+    	shutdown.run();
+    }
+    
+    /**
+     * Sets how long {@link #close()} waits for a single singleton to close before it reports a timeout and goes on.
+     * Defaults to 30 seconds, children created afterwards use the same timeout.
+     *
+     * @param timeout the timeout per singleton
+     */
+    public void setCloseTimeout(Duration timeout) {
+    	if (timeout.isNegative() || timeout.isZero()) {
+    		throw new IllegalArgumentException("Close timeout must be positive");
+    	}
+    	this.closeTimeout = timeout;
+    }
+    
+    /**
+     * @return the timeout per singleton used by {@link #close()}
+     */
+    public Duration getCloseTimeout() {
+    	return this.closeTimeout;
+    }
 
     /**
      * Returns an InjectionPoint for a given class type, which can then be used to provide
@@ -97,7 +219,7 @@ public class Injector {
      * @return an InjectionPoint to define the binding.
      */
     public <T> InjectionPoint<T> forClass(Class<T> token) {
-    	return this.new InjectionPoint<T>(new InjectionToken<T>(token, ResolutionScope.CLASS));
+    	return this.new InjectionPoint<T>(InjectionToken.of(token));
     }
     
     /**
@@ -110,6 +232,18 @@ public class Injector {
     	return this.new InjectionPoint<T>(token);
     }
     
+    /**
+     * Returns an InjectionPoint for a generic type, e.g. {@code forType(new TypeLiteral<Cache<User>>() {})}.
+     * Fields and constructor parameters declared with exactly that type are injected from this binding.
+     *
+     * @param type the captured type
+     * @return an InjectionPoint to define the binding
+     * @throws InjectionException if the type contains wildcards or type variables
+     */
+    public <T> InjectionPoint<T> forType(TypeLiteral<T> type) {
+    	return this.new InjectionPoint<T>(InjectionToken.of(type));
+    }
+    
     /**
      * Provides a class for its own type. 
      * <p><b>Be careful: </b>the Injector will create a new instance every time, #inject is called</p>
@@ -122,10 +256,245 @@ public class Injector {
     	this.forClass(clazz).provideClass(clazz);
     }
     
+    /**
+     * Sets the listener that observes every resolution of this Injector, e.g. a {@link ResolutionMetrics}.
+     * Children created afterwards share the listener.
+     * <p>
+     * Without a listener an injection only pays for a single null check.
+     * </p>
+     *
+     * @param listener the listener, or null to stop observing
+     */
+    public void setListener(InjectionListener listener) {
+    	this.listener = listener;
+    }
+    
+    /**
+     * @return the listener observing this Injector, or null
+     */
+    public InjectionListener getListener() {
+    	return this.listener;
+    }
+    
+    /**
+     * Returns the set multibinding of the given element class, which collects any number of bindings.
+     * The elements are injected as an immutable {@code List<T>} in the order they were added.
+     *
+     * @param clazz the element class
+     * @return a SetBinding to add elements to
+     */
+    public <T> SetBinding<T> forSet(Class<T> clazz) {
+    	InjectionToken<List<T>> token = InjectionToken.set(clazz);
+    	return this.new SetBinding<>(token, this.multibinding(token, SetInjectable::new));
+    }
+    
+    /**
+     * Returns the map multibinding of the given key and value classes, which collects any number of bindings
+     * under distinct keys. The elements are injected as an immutable {@code Map<K, V>} in the order they were put.
+     *
+     * @param keyClass the key class
+     * @param valueClass the value class
+     * @return a MapBinding to put elements into
+     */
+    public <K, V> MapBinding<K, V> forMap(Class<K> keyClass, Class<V> valueClass) {
+    	InjectionToken<Map<K, V>> token = InjectionToken.map(keyClass, valueClass);
+    	return this.new MapBinding<>(token, this.multibinding(token, MapInjectable::new));
+    }
+    
+    @SuppressWarnings("unchecked")
+	private <T, I extends MultibindingInjectable<T>> I multibinding(InjectionToken<T> token, Supplier<I> factory) {
+    	Injectable<?> injectable = this.binding(token);
+    	if (injectable == null) {
+    		injectable = factory.get();
+    		this.provide(token, (I) injectable);
+    	}
+    	return (I) injectable;
+    }
+    
     <T> void provide(InjectionToken<T> token, Injectable<T> injectable) {
-	    this.injectables.put(token, injectable);
+    	synchronized (this) {
+    		this.checkModifiable(token);
+    		this.bindings.put(token, injectable);
+    	}
 	}
     
+    private void checkModifiable(InjectionToken<?> token) {
+    	if (this.frozen) {
+    		throw new IllegalStateException("Injector is frozen, " + token + " can not be provided");
+    	}
+    	if (this.closed) {
+    		throw new IllegalStateException("Injector is closed, " + token + " can not be provided");
+    	}
+    }
+    
+    /**
+     * Locks the bindings, afterwards no further bindings can be provided.
+     * <p>
+     * Freeze the Injector once all bindings are provided, e.g. at the end of the application start up,
+     * before it is shared with other threads.
+     * </p>
+     *
+     * @return this Injector
+     */
+    public Injector freeze() {
+    	//the lock of provide, so no binding is published after freeze returned
+    	synchronized (this) {
+    		this.frozen = true;
+    	}
+    	return this;
+    }
+    
+    /**
+     * @return whether {@link #freeze()} has been called on this Injector
+     */
+    public boolean isFrozen() {
+    	return this.frozen;
+    }
+    
+    /**
+     * Checks all bindings without creating any instance. The constructor parameters and {@link Inject} fields of
+     * every provided class are followed through the whole graph, including classes provided by {@link Provide}.
+     * <p>
+     * Bindings created by factories can not be looked into, their dependencies are not checked.
+     * </p>
+     *
+     * @throws ValidationException listing every missing binding, circular dependency and class without an
+     * injectable constructor
+     */
+    public void validate() {
+    	new DependencyGraph(this).check();
+    }
+
+    /**
+     * Builds the graph of all bindings of this Injector, the same way {@link #validate()} checks them, for analysis and
+     * export. Problems are reported by {@link BindingGraph#getProblems()} instead of being thrown.
+     *
+     * @return a snapshot of the current bindings
+     */
+    public BindingGraph graph() {
+    	return new BindingGraph(new DependencyGraph(this));
+    }
+
+    /**
+     * Validates all bindings and creates every singleton provided by {@link InjectionPoint#provideInstanceOf(Class)},
+     * dependencies first, so the first injection does not pay for their construction.
+     *
+     * @return this Injector
+     * @throws ValidationException if {@link #validate()} finds a problem, before anything is created
+     */
+    public Injector warmUp() {
+    	return this.warmUp(Runnable::run);
+    }
+    
+    /**
+     * Like {@link #warmUp()}, but creates the singletons on the given executor. Every singleton is created as soon as
+     * all singletons it depends on exist, so independent singletons are created in parallel and the warm up only takes
+     * as long as the slowest chain of dependent singletons.
+     * <p>
+     * Any executor can be used, e.g. a fixed thread pool or, on newer Java versions, a virtual thread per task executor.
+     * </p>
+     *
+     * @param executor the executor creating the singletons
+     * @return this Injector, once all singletons are created
+     * @throws ValidationException if {@link #validate()} finds a problem, before anything is created
+     */
+    public Injector warmUp(Executor executor) {
+    	DependencyGraph graph = new DependencyGraph(this);
+    	graph.check();
+    	Map<DependencyGraph.Node, CompletableFuture<Void>> created = new HashMap<>();
+    	for (DependencyGraph.Node node : graph.getTopologicalOrder()) {
+    		if (!node.isSingleton()) {
+    			continue;
+    		}
+    		Set<DependencyGraph.Node> dependencies = graph.getSingletonDependencies(node);
+    		CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.size()];
+    		int i = 0;
+    		for (DependencyGraph.Node dependency : dependencies) {
+    			dependencyFutures[i++] = created.get(dependency);
+    		}
+    		created.put(node, CompletableFuture.allOf(dependencyFutures)
+    				.thenRunAsync(() -> this.resolve(node.injectable), executor));
+    	}
+    	try {
+    		CompletableFuture.allOf(created.values().toArray(new CompletableFuture<?>[0])).join();
+    	} catch (CompletionException e) {
+    		if (e.getCause() instanceof RuntimeException) {
+    			throw (RuntimeException) e.getCause();
+    		}
+    		throw new InjectionException(e.getCause());
+    	}
+    	return this;
+    }
+    
+    /**
+     * Validates all bindings, freezes the Injector and stops checking for circular dependencies on every injection.
+     * Only circles through factories, which {@link #validate()} can not look into, would then end in a
+     * {@link StackOverflowError} instead of a {@link CircularDependencyException}.
+     * <p>
+     * Children of this Injector keep checking the resolutions they start.
+     * </p>
+     *
+     * @return this Injector
+     * @throws ValidationException if {@link #validate()} finds a problem, the detection stays enabled then
+     */
+    public Injector disableCycleDetection() {
+    	this.validate();
+    	this.freeze();
+    	this.cycleDetection = false;
+    	return this;
+    }
+    
+    /**
+     * Validates all bindings, freezes the Injector and compiles the whole graph of every class binding created on each
+     * injection into a single method handle, so an injection of it no longer looks up any binding on the way down.
+     * <p>
+     * Prototypes the graph consists of are constructed inline, singletons and values are embedded as constants, so
+     * every singleton referenced by a compiled graph is created here. Factories, scoped and deferred dependencies and
+     * multibindings are resolved as before. An {@link InjectionListener} only sees the injected root then, not the inlined
+     * prototypes. Classes providing other classes with {@link Provide} and fields referring back to the instance under
+     * construction are not compiled.
+     * </p>
+     *
+     * @return this Injector
+     * @throws ValidationException if {@link #validate()} finds a problem, nothing is compiled then
+     */
+    public Injector compile() {
+    	this.validate();
+    	this.freeze();
+    	for (Map.Entry<InjectionToken<?>, Injectable<?>> entry : this.bindings().asMap().entrySet()) {
+    		if (entry.getValue().getClass() == ClassInjectable.class) {
+    			this.compile(entry.getKey(), (ClassInjectable<?>) entry.getValue());
+    		}
+    	}
+    	return this;
+    }
+
+    private <T> void compile(InjectionToken<?> token, ClassInjectable<T> injectable) {
+    	MethodHandle handle = GraphCompiler.compile(this, injectable.getClazz());
+    	if (handle != null) {
+    		synchronized (this) {
+    			//frozen by now, so the binding is replaced without the check, unless it was closed meanwhile
+    			if (!this.closed) {
+    				this.bindings.put(token, new CompiledInjectable<>(injectable.getClazz(), this, handle));
+    			}
+    		}
+    	}
+    }
+
+    /**
+     * @return false once {@link #disableCycleDetection()} was called
+     */
+    public boolean isCycleDetectionEnabled() {
+    	return this.cycleDetection;
+    }
+    
+    /**
+     * @return the trace for a resolution started on this Injector
+     */
+    ClassTrace trace() {
+    	return this.cycleDetection ? ClassTrace.current() : ClassTrace.DISABLED;
+    }
+    
     /**
      * Injects an instance of the given class type.
      *
@@ -134,7 +503,7 @@ public class Injector {
      * @throws InjectionException if the class has not been provided
      */
 	public <T> T inject(Class<T> clazz) {
-    	return this.inject(new InjectionToken<>(clazz, ResolutionScope.CLASS));
+    	return this.inject(InjectionToken.of(clazz), false);
     }
     
     /**
@@ -144,7 +513,106 @@ public class Injector {
      * @return an instance or null
      */
     public <T> T injectOptional(Class<T> clazz) {
-    	return this.inject(new InjectionToken<>(clazz, ResolutionScope.CLASS), true,new ClassTrace());
+    	return this.inject(InjectionToken.of(clazz), true);
+    }
+    
+    /**
+     * Injects an instance of the given generic type. Unlike a field of that type, it does not fall back to the binding
+     * of the raw class. The token is cached by the literal, so hot paths should keep the literal, e.g. as a constant.
+     *
+     * @param type the captured type
+     * @return an instance of the type
+     * @throws InjectionException if the type has not been provided
+     */
+    public <T> T inject(TypeLiteral<T> type) {
+    	return this.inject(InjectionToken.of(type), false);
+    }
+    
+    /**
+     * Borrows an instance of a class provided by {@link InjectionPoint#providePooled(Class, int)}.
+     *
+     * @param clazz the class to borrow
+     * @return the handle returning the instance to the pool once closed
+     * @throws InjectionException if the class is not provided by a pool
+     */
+    public <T> Pooled<T> borrow(Class<T> clazz) {
+    	return this.borrow(InjectionToken.of(clazz));
+    }
+    
+    /**
+     * Borrows an instance of a token provided by {@link InjectionPoint#providePooled(Class, int)}.
+     *
+     * @param token the injection token
+     * @return the handle returning the instance to the pool once closed
+     * @throws InjectionException if the token is not provided by a pool
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Pooled<T> borrow(InjectionToken<T> token) {
+    	Injector owner = this.owner(token);
+    	Injectable<?> injectable = owner != null ? owner.binding(token) : null;
+    	if (!(injectable instanceof PooledInjectable)) {
+    		throw new InjectionException(token + " is not pooled");
+    	}
+    	PooledInjectable<T> pool = (PooledInjectable<T>) injectable;
+    	return new Pooled<>(pool, owner.resolve(pool));
+    }
+    
+    /**
+     * @param clazz the pooled class
+     * @return the statistics of the pool providing the class, or null if it is not provided by a pool
+     */
+    public PoolStats getPoolStats(Class<?> clazz) {
+    	return this.getPoolStats(InjectionToken.of(clazz));
+    }
+    
+    /**
+     * @param token the pooled token
+     * @return the statistics of the pool providing the token, or null if it is not provided by a pool
+     */
+    public PoolStats getPoolStats(InjectionToken<?> token) {
+    	Injector owner = this.owner(token);
+    	Injectable<?> injectable = owner != null ? owner.binding(token) : null;
+    	return injectable instanceof PooledInjectable ? ((PooledInjectable<?>) injectable).stats() : null;
+    }
+    
+    /**
+     * Injects the elements of the set multibinding of the given class.
+     *
+     * @param clazz the element class
+     * @return the elements, or an empty list if no set multibinding was provided
+     */
+    public <T> List<T> injectAll(Class<T> clazz) {
+    	List<T> elements = this.inject(InjectionToken.set(clazz), true);
+    	return elements != null ? elements : Collections.emptyList();
+    }
+    
+    /**
+     * Injects the elements of the map multibinding of the given classes.
+     *
+     * @param keyClass the key class
+     * @param valueClass the value class
+     * @return the elements, or an empty map if no map multibinding was provided
+     */
+    public <K, V> Map<K, V> injectMap(Class<K> keyClass, Class<V> valueClass) {
+    	Map<K, V> elements = this.inject(InjectionToken.map(keyClass, valueClass), true);
+    	return elements != null ? elements : Collections.emptyMap();
+    }
+    
+    /**
+     * Injects an instance of the given class without blocking. Every binding provided by
+     * {@link InjectionPoint#provideAsync(Function)} that is needed for it, directly or through other bindings, is
+     * started first, and the instance is resolved once all of them are complete.
+     * <p>
+     * The other bindings are resolved synchronously on the thread completing the last asynchronous binding, or on
+     * the calling thread if there is none.
+     * </p>
+     *
+     * @param clazz the class to inject
+     * @return a future of the instance, completing exceptionally if the class can not be injected
+     */
+    public <T> CompletableFuture<T> injectAsync(Class<T> clazz) {
+    	InjectionToken<T> token = InjectionToken.of(clazz);
+    	return AsyncDependencies.ready(this, token).thenApply(ready -> this.inject(token));
     }
     
     /**
@@ -155,7 +623,7 @@ public class Injector {
      * @throws InjectionException if not provided
      */
     public <T> T inject(InjectionToken<T> token) {
-    	return this.inject(token, false, new ClassTrace());
+    	return this.inject(token, false);
     }
     
     /**
@@ -165,7 +633,33 @@ public class Injector {
      * @return the resolved instance or null if not provided
      */
     public <T> T injectOptional(InjectionToken<T> token) {
-    	return this.inject(token, true, new ClassTrace());
+    	return this.inject(token, true);
+    }
+    
+    /**
+     * Starts a resolution on the trace of the calling thread, which is reset afterwards even if the resolution fails.
+     */
+    <T> T inject(InjectionToken<T> token, boolean optional) {
+    	ClassTrace classTrace = this.trace();
+    	int depth = classTrace.depth();
+    	try {
+    		return this.inject(token, optional, classTrace);
+    	} finally {
+    		classTrace.reset(depth);
+    	}
+    }
+    
+    /**
+     * Like {@link #inject(InjectionToken, boolean)}, for a binding that was already looked up.
+     */
+    <T> T resolve(Injectable<T> injectable) {
+    	ClassTrace classTrace = this.trace();
+    	int depth = classTrace.depth();
+    	try {
+    		return injectable.resolve(this, classTrace);
+    	} finally {
+    		classTrace.reset(depth);
+    	}
     }
         
     @SuppressWarnings("unchecked")
@@ -173,54 +667,114 @@ public class Injector {
     	if (token == null) {
     		throw new IllegalArgumentException("Null-Token not possible");
     	}
-        Injectable<?> injectable = this.injectables.get(token);
+        Injectable<?> injectable = this.bindings.get(token);
         if (injectable == null) {
+        	if (this.closed) {
+        		throw new IllegalStateException("Injector is closed, " + token + " can not be injected");
+        	}
+        	if (this.parent != null) {
+        		if (INJECTOR_TOKEN.id == token.id) {
+        			return (T) this;
+        		}
+        		return this.parent.inject(token, optional, classTrace);
+        	}
         	if (optional) {
         		return null;
         	} else {
         		throw new InjectionException(token.toString() + " not provided", classTrace);        		
         	}
         }
-		return (T) injectable.resolve(new ResolutionContext(classTrace));
+        InjectionListener listener = this.listener;
+        if (listener != null) {
+        	return (T) this.resolveObserved(listener, token, injectable, classTrace);
+        }
+		return (T) injectable.resolve(this, classTrace);
+    }
+    
+    private Object resolveObserved(InjectionListener listener, InjectionToken<?> token, Injectable<?> injectable, ClassTrace classTrace) {
+    	boolean cached = injectable.isCached();
+    	long start = System.nanoTime();
+    	Object instance = injectable.resolve(this, classTrace);
+    	listener.resolved(token, cached, System.nanoTime() - start);
+    	return instance;
+    }
+    
+    Object resolve(Dependency dependency, ClassTrace classTrace) {
+    	if (dependency.isDeferred()) {
+    		return dependency.defer(this);
+    	}
+    	if (dependency.fallback != null) {
+    		Object value = this.inject(dependency.token, true, classTrace);
+    		return value != null ? value : this.inject(dependency.fallback, dependency.optional, classTrace);
+    	}
+    	return this.inject(dependency.token, dependency.optional, classTrace);
+    }
+    
+    /**
+     * @return the binding of the token provided by this Injector itself, or null
+     */
+    Injectable<?> binding(InjectionToken<?> token) {
+    	return this.bindings.get(token);
+    }
+    
+    BindingTable bindings() {
+    	return this.bindings;
+    }
+    
+    /**
+     * @return this Injector or the closest parent providing the token, or null
+     */
+    Injector owner(InjectionToken<?> token) {
+    	for (Injector injector = this; injector != null; injector = injector.parent) {
+    		if (injector.binding(token) != null) {
+    			return injector;
+    		}
+    	}
+    	return null;
     }
     
     /**
      * Initializes an object by injecting fields annotated with @Inject and
-     * processing any @Provide annotations on the object's class.
+     * processing any @Provide annotations on the object's class. Afterwards its {@link PostConstruct} methods are called.
      *
      * @param object the object to initialize
      */
     public void initialize(Object object) {
-    	this.initialize(object, new ResolutionContext(new ClassTrace()));
+    	ClassTrace classTrace = this.trace();
+    	if (classTrace.depth() > 0) {
+    		//called during a resolution, e.g. by a constructor initializing itself, which is not part of that resolution
+    		this.initialize(object, new ResolutionContext(new ClassTrace()));
+    		return;
+    	}
+    	int depth = classTrace.depth();
+    	try {
+    		this.initialize(object, new ResolutionContext(classTrace));
+    	} finally {
+    		classTrace.reset(depth);
+    	}
     }
     
     void initialize(Object object, ResolutionContext resolutionContext) {
     	if (object == null) {
     		return;
     	}
-    	Provide[] provides = object.getClass().getAnnotationsByType(Provide.class);
-    	for (Provide provide : provides) {
-    		resolutionContext.provide(provide.value());
+    	InitializationPlan plan = InitializationPlan.of(object.getClass());
+    	this.initialize(object, plan, resolutionContext);
+    	if (plan.postConstruct != null) {
+    		plan.postConstruct.call(object);
+    	}
+    }
+    
+    void initialize(Object object, InitializationPlan plan, ResolutionContext resolutionContext) {
+    	for (Class<?> provide : plan.provides) {
+    		resolutionContext.provide(provide);
     	}
     	resolutionContext.classTrace.push(object.getClass());
-    	for (Field field : object.getClass().getDeclaredFields()) {
-			Inject inject = field.getAnnotation(Inject.class);
-			if (inject == null) {
-				continue;
-			}
-			field.setAccessible(true);
-			Class<?> clazz;
-			if (inject.value() != Object.class) {
-				clazz = inject.value();
-			} else {
-				clazz = field.getType();
-			}
-			Object injected = inject(new InjectionToken<>(clazz, ResolutionScope.CLASS), inject.optional(), resolutionContext.classTrace);
-			try {
-				field.set(object, injected);
-			} catch (IllegalArgumentException | IllegalAccessException e) {
-				throw new InjectionException(e);
-			}
+    	FieldWriter[] writers = plan.writers;
+    	for (int i = 0; i < writers.length; i++) {
+    		Dependency dependency = plan.dependencies[i];
+			Object injected = this.resolve(dependency, resolutionContext.classTrace);
+			writers[i].set(object, injected);
 		}
     	resolutionContext.classTrace.pop();
 	}
@@ -230,6 +784,10 @@ public class Injector {
      * <p>
      * Use {@link InjectionPoint} to define how a type should be provided: by class, instance, value, or factory.
      * </p>
+     * <p>
+     * A class is created through its constructor marked with {@link Inject}, else the canonical constructor of a
+     * record, else its constructor without parameters or its only constructor.
+     * </p>
      * <p><b>Example usage:</b></p>
      * <pre>{@code
      * //new instance every time
@@ -258,7 +816,7 @@ public class Injector {
     	
         /**
          * Provides a class to create a new instance each injection.
-         * The class must have a constructor with no parameters or only one constructor
+         * The constructor is chosen as described in {@link InjectionPoint}.
          *
          * @param clazz the class to instantiate for injection
          */
@@ -278,7 +836,6 @@ public class Injector {
     	
         /**
          * Provides a singleton instance inside the injection scope for the given class type.
-         * The class must have a constructor with no parameters or only one constructor
          *
          * @param clazz the class to instantiate once
          */
@@ -287,6 +844,73 @@ public class Injector {
     		Injector.this.provide(this.token, new InstanceInjectable(clazz));
     	}
     	
+        /**
+         * Provides an instance per active scope, e.g. per thread with {@link ThreadScope} or per request with
+         * {@link RequestScope}.
+         *
+         * @param clazz the class to instantiate once per scope
+         * @param scope the scope deciding where the instances live
+         */
+    	@SuppressWarnings({ "unchecked", "rawtypes" })
+    	public void provideScoped(Class<? extends T> clazz, Scope scope) {
+    		Injector.this.provide(this.token, new ScopedInjectable(clazz, scope));
+    	}
+    	
+        /**
+         * Provides a pool of instances for objects that are expensive to create, e.g. parsers or buffers.
+         * {@link Injector#borrow(Class)} takes an idle instance, or creates one if there is none, and the returned
+         * {@link Pooled} handle gives it back. Other injections take an instance the same way, but never return it.
+         *
+         * @param clazz the class to instantiate when the pool is empty
+         * @param maxSize the maximum number of idle instances, further returned instances are dropped
+         */
+    	public void providePooled(Class<? extends T> clazz, int maxSize) {
+    		this.providePooled(clazz, maxSize, null);
+    	}
+    	
+        /**
+         * Like {@link #providePooled(Class, int)}, with a hook that resets every returned instance before it is
+         * borrowed again.
+         *
+         * @param clazz the class to instantiate when the pool is empty
+         * @param maxSize the maximum number of idle instances, further returned instances are dropped
+         * @param reset called with every returned instance, an instance it throws for is dropped
+         */
+    	@SuppressWarnings({ "unchecked", "rawtypes" })
+    	public <C extends T> void providePooled(Class<C> clazz, int maxSize, Consumer<? super C> reset) {
+    		Injector.this.provide(this.token, new PooledInjectable(clazz, maxSize, reset));
+    	}
+    	
+        /**
+         * Provides a singleton created asynchronously by the given function, e.g. from a remote call.
+         * The function is called once, concurrent callers share its future.
+         * If the future fails, the next injection calls the function again.
+         * <p>
+         * {@link Injector#injectAsync(Class)} waits for the instance without blocking, {@link Injector#inject(Class)}
+         * blocks until it is created.
+         * </p>
+         *
+         * @param factory the function that receives the current Injector, and may compose other asynchronous
+         * bindings with {@link Injector#injectAsync(Class)}
+         */
+    	public void provideAsync(Function<Injector, ? extends CompletionStage<? extends T>> factory) {
+    		Injector.this.provide(this.token, new AsyncInjectable<T>(factory));
+    	}
+    	
+        /**
+         * Provides a singleton of the given class, created asynchronously on the executor once all asynchronous
+         * bindings it needs are complete.
+         *
+         * @param clazz the class to instantiate once
+         * @param executor the executor to create the instance on
+         */
+    	@SuppressWarnings({ "unchecked", "rawtypes" })
+    	public void provideAsync(Class<? extends T> clazz, Executor executor) {
+    		ClassInjectable<? extends T> injectable = new ClassInjectable(clazz);
+    		this.provideAsync(injector -> AsyncDependencies.ready(injector, clazz)
+    				.thenApplyAsync(ready -> injector.resolve(injectable), executor));
+    	}
+    	
         /**
          * Provides a factory function that creates a new instance for each injection.
          *
@@ -297,20 +921,252 @@ public class Injector {
     	}
     }
     
+    /**
+     * The set multibinding of an element type inside an {@link Injector}. Every element is bound like a single
+     * {@link InjectionPoint} binding.
+     * <p><b>Example usage:</b></p>
+     * <pre>{@code
+     * injector.forSet(Handler.class)
+     *         .addInstanceOf(LoginHandler.class)
+     *         .addInstanceOf(LogoutHandler.class);
+     *
+     * List<Handler> handlers = injector.injectAll(Handler.class); // or an @Inject List<Handler> field
+     * }</pre>
+     *
+     * @param <T> the element type
+     */
+    public class SetBinding<T> {
+    	
+    	private final InjectionToken<List<T>> token;
+    	
+    	private final SetInjectable<T> injectable;
+    	
+    	SetBinding(InjectionToken<List<T>> token, SetInjectable<T> injectable) {
+    		this.token = token;
+    		this.injectable = injectable;
+    	}
+    	
+    	/**
+    	 * Adds a class creating a new element instance each injection.
+    	 *
+    	 * @param clazz the class to instantiate
+    	 * @return this SetBinding
+    	 */
+    	public SetBinding<T> addClass(Class<? extends T> clazz) {
+    		return this.add(new ClassInjectable<>(clazz));
+    	}
+    	
+    	/**
+    	 * Adds a singleton element.
+    	 *
+    	 * @param clazz the class to instantiate once
+    	 * @return this SetBinding
+    	 */
+    	public SetBinding<T> addInstanceOf(Class<? extends T> clazz) {
+    		return this.add(new InstanceInjectable<>(clazz));
+    	}
+    	
+    	/**
+    	 * Adds a fixed value as element.
+    	 *
+    	 * @param value the element
+    	 * @return this SetBinding
+    	 */
+    	public SetBinding<T> addValue(T value) {
+    		return this.add(new ValueInjectable<>(value));
+    	}
+    	
+    	/**
+    	 * Adds a factory function creating a new element each injection.
+    	 *
+    	 * @param factory the factory function that receives the current Injector
+    	 * @return this SetBinding
+    	 */
+    	public SetBinding<T> addFactory(Function<Injector, ? extends T> factory) {
+    		return this.add(new FactoryInjectable<>(factory));
+    	}
+    	
+    	private SetBinding<T> add(Injectable<? extends T> element) {
+    		synchronized (Injector.this) {
+    			Injector.this.checkModifiable(this.token);
+    			this.injectable.addElement(element);
+    		}
+    		return this;
+    	}
+    }
+    
+    /**
+     * The map multibinding of a key and value type inside an {@link Injector}. Every element is bound like a single
+     * {@link InjectionPoint} binding under a distinct key.
+     * <p><b>Example usage:</b></p>
+     * <pre>{@code
+     * injector.forMap(String.class, Handler.class)
+     *         .putInstanceOf("login", LoginHandler.class)
+     *         .putInstanceOf("logout", LogoutHandler.class);
+     *
+     * Map<String, Handler> handlers = injector.injectMap(String.class, Handler.class); // or an @Inject field
+     * }</pre>
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public class MapBinding<K, V> {
+    	
+    	private final InjectionToken<Map<K, V>> token;
+    	
+    	private final MapInjectable<K, V> injectable;
+    	
+    	MapBinding(InjectionToken<Map<K, V>> token, MapInjectable<K, V> injectable) {
+    		this.token = token;
+    		this.injectable = injectable;
+    	}
+    	
+    	/**
+    	 * Puts a class creating a new element instance each injection.
+    	 *
+    	 * @param key the key of the element
+    	 * @param clazz the class to instantiate
+    	 * @return this MapBinding
+    	 * @throws IllegalArgumentException if the key is already bound
+    	 */
+    	public MapBinding<K, V> putClass(K key, Class<? extends V> clazz) {
+    		return this.put(key, new ClassInjectable<>(clazz));
+    	}
+    	
+    	/**
+    	 * Puts a singleton element.
+    	 *
+    	 * @param key the key of the element
+    	 * @param clazz the class to instantiate once
+    	 * @return this MapBinding
+    	 * @throws IllegalArgumentException if the key is already bound
+    	 */
+    	public MapBinding<K, V> putInstanceOf(K key, Class<? extends V> clazz) {
+    		return this.put(key, new InstanceInjectable<>(clazz));
+    	}
+    	
+    	/**
+    	 * Puts a fixed value as element.
+    	 *
+    	 * @param key the key of the element
+    	 * @param value the element
+    	 * @return this MapBinding
+    	 * @throws IllegalArgumentException if the key is already bound
+    	 */
+    	public MapBinding<K, V> putValue(K key, V value) {
+    		return this.put(key, new ValueInjectable<>(value));
+    	}
+    	
+    	/**
+    	 * Puts a factory function creating a new element each injection.
+    	 *
+    	 * @param key the key of the element
+    	 * @param factory the factory function that receives the current Injector
+    	 * @return this MapBinding
+    	 * @throws IllegalArgumentException if the key is already bound
+    	 */
+    	public MapBinding<K, V> putFactory(K key, Function<Injector, ? extends V> factory) {
+    		return this.put(key, new FactoryInjectable<>(factory));
+    	}
+    	
+    	private MapBinding<K, V> put(K key, Injectable<? extends V> element) {
+    		synchronized (Injector.this) {
+    			Injector.this.checkModifiable(this.token);
+    			this.injectable.put(key, element);
+    		}
+    		return this;
+    	}
+    }
+    
+    /**
+     * The scope of a single resolution step. It holds the instance under construction and the classes provided
+     * by its {@link Provide} annotations, everything else is looked up in the enclosing injector.
+     * <p>
+     * A context is only created for instances with injected fields, and its binding map only once something
+     * is provided into it, so resolving values and existing singletons does not allocate a context at all.
+     * </p>
+     */
     class ResolutionContext extends Injector {
     	
     	ClassTrace classTrace;
     	
+    	private InjectionToken<?> selfToken;
+    	
+    	private Object self;
+    	
+    	//the few provided classes are searched linearly, a binding table would be as long as the highest token id
+    	InjectionToken<?>[] overlayTokens;
+    	
+    	private Injectable<?>[] overlayInjectables;
+    	
+    	private int overlaySize;
+    	
     	ResolutionContext(ClassTrace classTrace) {
+    		super(null);
     		this.classTrace = classTrace;
 		}
     	
+    	<T> void provideSelf(InjectionToken<T> token, T instance) {
+    		this.selfToken = token;
+    		this.self = instance;
+    	}
+    	
+    	@Override
+    	<T> void provide(InjectionToken<T> token, Injectable<T> injectable) {
+    		if (this.overlayTokens == null) {
+    			this.overlayTokens = new InjectionToken<?>[4];
+    			this.overlayInjectables = new Injectable<?>[4];
+    		}
+    		for (int i = 0; i < this.overlaySize; i++) {
+    			if (this.overlayTokens[i].id == token.id) {
+    				this.overlayInjectables[i] = injectable;
+    				return;
+    			}
+    		}
+    		if (this.overlaySize == this.overlayTokens.length) {
+    			this.overlayTokens = Arrays.copyOf(this.overlayTokens, this.overlaySize * 2);
+    			this.overlayInjectables = Arrays.copyOf(this.overlayInjectables, this.overlaySize * 2);
+    		}
+    		this.overlayTokens[this.overlaySize] = token;
+    		this.overlayInjectables[this.overlaySize] = injectable;
+    		this.overlaySize++;
+    	}
+    	
+    	@Override
+    	Injectable<?> binding(InjectionToken<?> token) {
+    		for (int i = 0; i < this.overlaySize; i++) {
+    			if (this.overlayTokens[i].id == token.id) {
+    				return this.overlayInjectables[i];
+    			}
+    		}
+    		return null;
+    	}
+    	
+    	@Override
+    	ClassTrace trace() {
+    		return Injector.this.trace();
+    	}
+    	
+    	@Override
+    	Injector owner(InjectionToken<?> token) {
+    		if (this.binding(token) != null) {
+    			return this;
+    		}
+    		return Injector.this.owner(token);
+    	}
+    	
     	@SuppressWarnings("unchecked")
 		@Override
     	<T> T inject(InjectionToken<T> token, boolean optional, ClassTrace classTrace) {
-    		Injectable<?> injectable = this.injectables.get(token);
+    		Injectable<?> injectable = this.binding(token);
     		if (injectable != null) {
-    			return (T) injectable.resolve(new ResolutionContext(classTrace));
+    			return (T) injectable.resolve(this, classTrace);
+    		}
+    		if (this.self != null && this.selfToken.id == token.id) {
+    			return (T) this.self;
+    		}
+    		if (INJECTOR_TOKEN.id == token.id) {
+    			return (T) this;
     		}
     		return Injector.this.inject(token, optional, classTrace);
     	}
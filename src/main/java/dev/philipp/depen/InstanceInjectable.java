@@ -1,21 +1,54 @@
 package dev.philipp.depen;
 
-import dev.philipp.depen.Injector.ResolutionContext;
-
+/**
+ * A singleton binding. The instance is created exactly once, even if several threads inject it
+ * at the same time: reads of an existing instance are a single volatile read, and only the first
+ * creation is guarded by a lock that belongs to this binding.
+ */
 class InstanceInjectable <T> extends ClassInjectable<T> {
 
-	private T instance = null;
+	private final Object lock = new Object();
+	
+	private volatile T instance = null;
 	
 	InstanceInjectable(Class<T> clazz) {
 		super(clazz);
 	}
 	
+	boolean isCreated() {
+		return this.instance != null;
+	}
+	
+	/**
+	 * @return the instance, or null if it was not created yet
+	 */
+	T getInstance() {
+		return this.instance;
+	}
+	
+	@Override
+	boolean isShared() {
+		return true;
+	}
+	
 	@Override
-	T resolve(ResolutionContext resolutionContext) {
+	boolean isCached() {
+		return this.isCreated();
+	}
+	
+	@Override
+	T resolve(Injector injector, ClassTrace classTrace) {
+		T instance = this.instance;
 		if (instance != null) {
 			return instance;
 		}
-		this.instance = super.resolve(resolutionContext.new ResolutionContext(resolutionContext.classTrace));
-		return instance;
+		synchronized (this.lock) {
+			instance = this.instance;
+			if (instance == null) {
+				instance = super.resolve(injector, classTrace);
+				this.instance = instance;
+			}
+			return instance;
+		}
 	}
 }
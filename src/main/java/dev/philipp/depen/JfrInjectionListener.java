@@ -0,0 +1,53 @@
+package dev.philipp.depen;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * An {@link InjectionListener} that emits a Java Flight Recorder event for every resolution, so injections show up
+ * next to allocations and locks in a recording:
+ * <pre>{@code
+ * injector.setListener(new JfrInjectionListener());
+ * // java -XX:StartFlightRecording ...
+ * }</pre>
+ * Events are only created while a recording has the {@code dev.philipp.depen.Resolution} event enabled.
+ */
+public class JfrInjectionListener implements InjectionListener {
+
+	@Override
+	public void resolved(InjectionToken<?> token, boolean cached, long nanos) {
+		if (!ResolutionEvent.TYPE.isEnabled()) {
+			return;
+		}
+		ResolutionEvent event = new ResolutionEvent();
+		event.token = token.toString();
+		event.cached = cached;
+		event.resolutionTime = nanos;
+		event.commit();
+	}
+
+	@Name("dev.philipp.depen.Resolution")
+	@Label("Injection")
+	@Category("Depen")
+	@Description("A binding resolved by an Injector")
+	static class ResolutionEvent extends Event {
+
+		static final EventType TYPE = EventType.getEventType(ResolutionEvent.class);
+
+		@Label("Token")
+		String token;
+
+		@Label("Cached")
+		@Description("An existing instance was returned")
+		boolean cached;
+
+		@Label("Resolution Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long resolutionTime;
+	}
+}
@@ -0,0 +1,40 @@
+package dev.philipp.depen;
+
+/**
+ * A {@link Provider} that resolves its binding once on the first call to {@link #get()} and returns the same
+ * instance afterwards, even for bindings that create a new instance each time.
+ *
+ * @param <T> the type of the provided binding
+ */
+public final class Lazy<T> implements Provider<T> {
+
+	private final Provider<T> provider;
+
+	private volatile boolean resolved;
+
+	private T value;
+
+	Lazy(Provider<T> provider) {
+		this.provider = provider;
+	}
+
+	@Override
+	public T get() {
+		if (!this.resolved) {
+			synchronized (this) {
+				if (!this.resolved) {
+					this.value = this.provider.get();
+					this.resolved = true;
+				}
+			}
+		}
+		return this.value;
+	}
+
+	/**
+	 * @return true if the binding was already resolved
+	 */
+	public boolean isResolved() {
+		return this.resolved;
+	}
+}
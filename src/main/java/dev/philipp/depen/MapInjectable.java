@@ -0,0 +1,41 @@
+package dev.philipp.depen;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map multibinding, injected as an immutable {@code Map} of its keys to the resolved elements in the order
+ * they were put.
+ */
+class MapInjectable<K, V> extends MultibindingInjectable<Map<K, V>> {
+
+	private volatile Object[] keys = new Object[0];
+
+	synchronized void put(K key, Injectable<? extends V> element) {
+		if (key == null) {
+			throw new IllegalArgumentException("Null-Key not possible");
+		}
+		for (Object existing : this.keys) {
+			if (existing.equals(key)) {
+				throw new IllegalArgumentException("Key " + key + " is already bound");
+			}
+		}
+		Object[] keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+		keys[keys.length - 1] = key;
+		this.keys = keys;
+		this.addElement(element);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	Map<K, V> collect(Object[] instances) {
+		Object[] keys = this.keys;
+		Map<K, V> map = new LinkedHashMap<>((int) (instances.length / 0.75f) + 1);
+		for (int i = 0; i < instances.length; i++) {
+			map.put((K) keys[i], (V) instances[i]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+}
@@ -0,0 +1,66 @@
+package dev.philipp.depen;
+
+import java.util.Arrays;
+
+/**
+ * A binding that collects the instances of several element bindings into one immutable collection.
+ * <p>
+ * Elements are only added while the Injector is configured. If every element returns the same instance each
+ * time, i.e. all of them are singletons or values, the collection is built once and then reused.
+ * </p>
+ *
+ * @param <T> the type of the collection
+ */
+abstract class MultibindingInjectable<T> extends Injectable<T> {
+
+	private volatile Injectable<?>[] elements = new Injectable<?>[0];
+
+	private volatile T cached;
+
+	synchronized void addElement(Injectable<?> element) {
+		Injectable<?>[] elements = Arrays.copyOf(this.elements, this.elements.length + 1);
+		elements[elements.length - 1] = element;
+		this.elements = elements;
+		this.cached = null;
+	}
+
+	Injectable<?>[] getElements() {
+		return this.elements;
+	}
+
+	@Override
+	boolean isCached() {
+		return this.cached != null;
+	}
+
+	@Override
+	T resolve(Injector injector, ClassTrace classTrace) {
+		T cached = this.cached;
+		if (cached != null) {
+			return cached;
+		}
+		Injectable<?>[] elements = this.elements;
+		Object[] instances = new Object[elements.length];
+		boolean shared = true;
+		for (int i = 0; i < elements.length; i++) {
+			instances[i] = elements[i].resolve(injector, classTrace);
+			shared &= elements[i].isShared();
+		}
+		T collection = this.collect(instances);
+		if (shared) {
+			synchronized (this) {
+				//an element added in the meantime invalidates this collection
+				if (this.elements == elements) {
+					this.cached = collection;
+				}
+			}
+		}
+		return collection;
+	}
+
+	/**
+	 * @param instances the resolved elements, in the order they were added
+	 * @return the immutable collection
+	 */
+	abstract T collect(Object[] instances);
+}
@@ -0,0 +1,84 @@
+package dev.philipp.depen;
+
+/**
+ * A snapshot of the statistics of a pooled binding, see {@link Injector#getPoolStats(Class)}.
+ */
+public final class PoolStats {
+
+	private final long hits;
+
+	private final long misses;
+
+	private final long returns;
+
+	private final long discards;
+
+	private final int size;
+
+	private final int maxSize;
+
+	PoolStats(long hits, long misses, long returns, long discards, int size, int maxSize) {
+		this.hits = hits;
+		this.misses = misses;
+		this.returns = returns;
+		this.discards = discards;
+		this.size = size;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return how many injections reused an idle instance
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * @return how many injections created a new instance, because the pool was empty
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * @return how many instances were returned to the pool
+	 */
+	public long getReturns() {
+		return this.returns;
+	}
+
+	/**
+	 * @return how many returned instances were dropped, because the pool was full or their reset failed
+	 */
+	public long getDiscards() {
+		return this.discards;
+	}
+
+	/**
+	 * @return the number of idle instances
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return the maximum number of idle instances
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * @return the share of injections that reused an instance, 0 if there was none
+	 */
+	public double getHitRate() {
+		long total = this.hits + this.misses;
+		return total == 0 ? 0 : (double) this.hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return "PoolStats [hits=" + this.hits + ", misses=" + this.misses + ", returns=" + this.returns
+				+ ", discards=" + this.discards + ", size=" + this.size + "/" + this.maxSize + "]";
+	}
+}
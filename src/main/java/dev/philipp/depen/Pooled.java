@@ -0,0 +1,51 @@
+package dev.philipp.depen;
+
+/**
+ * An instance borrowed from a pooled binding by {@link Injector#borrow(Class)}, returned to the pool by {@link #close()}.
+ * <p><b>Example usage:</b></p>
+ * <pre>{@code
+ * try (Pooled<Parser> parser = injector.borrow(Parser.class)) {
+ *     parser.get().parse(input);
+ * }
+ * }</pre>
+ * <p>
+ * A handle belongs to the thread that borrowed it, the instance must not be used after it was returned.
+ * </p>
+ *
+ * @param <T> the type of the borrowed instance
+ */
+public final class Pooled<T> implements AutoCloseable {
+
+	private final PooledInjectable<T> pool;
+
+	private T instance;
+
+	Pooled(PooledInjectable<T> pool, T instance) {
+		this.pool = pool;
+		this.instance = instance;
+	}
+
+	/**
+	 * @return the borrowed instance
+	 * @throws IllegalStateException if it was already returned
+	 */
+	public T get() {
+		T instance = this.instance;
+		if (instance == null) {
+			throw new IllegalStateException("Instance was already returned to the pool");
+		}
+		return instance;
+	}
+
+	/**
+	 * Resets the instance and returns it to the pool. Closing a handle a second time does nothing.
+	 */
+	@Override
+	public void close() {
+		T instance = this.instance;
+		if (instance != null) {
+			this.instance = null;
+			this.pool.release(instance);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package dev.philipp.depen;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A binding that reuses returned instances instead of creating a new one on every injection.
+ * <p>
+ * Idle instances are kept in a fixed array of slots, split into stripes. A thread takes and returns instances in the
+ * stripe of its id first and only visits the other stripes if its own one is empty or full, so threads rarely compete
+ * for the same slots. Every slot is taken and filled by a single compare and set, neither the pool nor its statistics
+ * lock or allocate.
+ * </p>
+ */
+class PooledInjectable<T> extends ClassInjectable<T> {
+
+	private static final int MAX_STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+	private final AtomicReferenceArray<T> slots;
+
+	private final int stripes;
+
+	private final Consumer<? super T> reset;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder returns = new LongAdder();
+
+	private final LongAdder discards = new LongAdder();
+
+	/**
+	 * @param reset called with every returned instance before it is pooled again, or null
+	 */
+	PooledInjectable(Class<T> clazz, int maxSize, Consumer<? super T> reset) {
+		super(clazz);
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Pool size must be positive");
+		}
+		this.slots = new AtomicReferenceArray<>(maxSize);
+		this.stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(maxSize));
+		this.reset = reset;
+	}
+
+	/**
+	 * Takes an idle instance, or creates a new one if the pool is empty.
+	 */
+	@Override
+	T resolve(Injector injector, ClassTrace classTrace) {
+		int home = this.stripe();
+		for (int i = 0; i < this.stripes; i++) {
+			int stripe = (home + i) & (this.stripes - 1);
+			for (int slot = this.start(stripe), end = this.start(stripe + 1); slot < end; slot++) {
+				T instance = this.slots.get(slot);
+				if (instance != null && this.slots.compareAndSet(slot, instance, null)) {
+					this.hits.increment();
+					return instance;
+				}
+			}
+		}
+		this.misses.increment();
+		return super.resolve(injector, classTrace);
+	}
+
+	/**
+	 * Resets the instance and pools it again, or drops it if the pool is full. An instance whose reset fails is
+	 * dropped as well.
+	 */
+	void release(T instance) {
+		if (this.reset != null) {
+			try {
+				this.reset.accept(instance);
+			} catch (RuntimeException | Error e) {
+				this.discards.increment();
+				throw e;
+			}
+		}
+		this.returns.increment();
+		int home = this.stripe();
+		for (int i = 0; i < this.stripes; i++) {
+			int stripe = (home + i) & (this.stripes - 1);
+			for (int slot = this.start(stripe), end = this.start(stripe + 1); slot < end; slot++) {
+				if (this.slots.get(slot) == null && this.slots.compareAndSet(slot, null, instance)) {
+					return;
+				}
+			}
+		}
+		this.discards.increment();
+	}
+
+	PoolStats stats() {
+		int size = 0;
+		for (int slot = 0; slot < this.slots.length(); slot++) {
+			if (this.slots.get(slot) != null) {
+				size++;
+			}
+		}
+		return new PoolStats(this.hits.sum(), this.misses.sum(), this.returns.sum(), this.discards.sum(), size, this.slots.length());
+	}
+
+	/**
+	 * @return the first slot of the stripe, the stripes split the slots as evenly as possible
+	 */
+	private int start(int stripe) {
+		return (int) ((long) stripe * this.slots.length() / this.stripes);
+	}
+
+	private int stripe() {
+		long id = Thread.currentThread().getId();
+		return (int) (id ^ (id >>> 16)) & (this.stripes - 1);
+	}
+}
@@ -0,0 +1,16 @@
+package dev.philipp.depen;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method without parameters that is called once the {@link Inject} fields of an instance created by the
+ * Injector, or passed to {@link Injector#initialize(Object)}, are set. Methods of superclasses are called first.
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface PostConstruct {
+}
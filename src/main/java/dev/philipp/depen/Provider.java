@@ -0,0 +1,31 @@
+package dev.philipp.depen;
+
+import java.util.function.Supplier;
+
+/**
+ * Resolves a binding on every call to {@link #get()} instead of once when the owner is created.
+ * <p>
+ * Injecting a {@code Provider<T>} or a {@link Supplier Supplier<T>} instead of {@code T} defers the resolution,
+ * which skips the construction of dependencies that are rarely used and breaks circular constructor dependencies:
+ * </p>
+ * <pre>{@code
+ * public class Handler {
+ *     @Inject Provider<ErrorReporter> reporter; // only created when an error is reported
+ * }
+ * }</pre>
+ * The binding is resolved by the same injector that created the owner, so {@link Provide} classes of the owner
+ * and the owner itself can be injected as well. Calling {@link #get()} in the constructor of a class that is on a
+ * circle with the provided binding still fails with a {@link CircularDependencyException}.
+ *
+ * @param <T> the type of the provided binding
+ */
+@FunctionalInterface
+public interface Provider<T> extends Supplier<T> {
+
+	/**
+	 * @return the resolved binding, or null if an optional binding is not provided
+	 * @throws InjectionException if the binding is not provided
+	 */
+	@Override
+	T get();
+}
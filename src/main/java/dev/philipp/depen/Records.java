@@ -0,0 +1,51 @@
+package dev.philipp.depen;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Record support without a compile time dependency on Java 16, so the library keeps running on Java 8.
+ * <p>
+ * Only a record can extend {@code java.lang.Record}, so a record is detected by its superclass. The component
+ * types are read through the reflection API of the running JDK, which exists whenever a record class could be
+ * loaded at all.
+ * </p>
+ */
+final class Records {
+
+	private static final String RECORD = "java.lang.Record";
+
+	private static volatile Method components;
+
+	private static volatile Method type;
+
+	private Records() {
+	}
+
+	static boolean isRecord(Class<?> clazz) {
+		Class<?> superclass = clazz.getSuperclass();
+		return superclass != null && superclass.getName().equals(RECORD);
+	}
+
+	/**
+	 * @return the types of the record components, in the order of the canonical constructor
+	 */
+	static Class<?>[] componentTypes(Class<?> clazz) {
+		try {
+			if (components == null) {
+				Method type = Class.forName("java.lang.reflect.RecordComponent").getMethod("getType");
+				Records.type = type;
+				components = Class.class.getMethod("getRecordComponents");
+			}
+			Object array = components.invoke(clazz);
+			Class<?>[] types = new Class<?>[Array.getLength(array)];
+			for (int i = 0; i < types.length; i++) {
+				types[i] = (Class<?>) type.invoke(Array.get(array, i));
+			}
+			return types;
+		} catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			throw new InjectionException("Record " + clazz.getName() + " can not be inspected: " + e);
+		}
+	}
+}
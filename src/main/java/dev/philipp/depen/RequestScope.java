@@ -0,0 +1,85 @@
+package dev.philipp.depen;
+
+/**
+ * A {@link Scope} with one instance per request. A request is active on a thread between {@link #enter()} and
+ * closing the returned {@link Activation}:
+ * <pre>{@code
+ * RequestScope requestScope = new RequestScope();
+ * injector.forClass(RequestData.class).provideScoped(RequestData.class, requestScope);
+ * 
+ * try (RequestScope.Activation request = requestScope.enter()) {
+ *     injector.inject(Handler.class);
+ * } // all instances of the request are released
+ * }</pre>
+ * Work of the same request running on another thread can join it with {@link #enter(ScopeStorage)}.
+ */
+public class RequestScope implements Scope {
+
+	private final ThreadLocal<ScopeStorage> current = new ThreadLocal<>();
+
+	@Override
+	public ScopeStorage storage() {
+		ScopeStorage storage = this.current.get();
+		if (storage == null) {
+			throw new InjectionException("No request active on thread " + Thread.currentThread().getName());
+		}
+		return storage;
+	}
+
+	/**
+	 * Starts a new request on the calling thread.
+	 *
+	 * @return the activation, which ends the request and releases its instances when closed
+	 */
+	public Activation enter() {
+		return new Activation(new ScopeStorage(), true);
+	}
+
+	/**
+	 * Joins a request that was started on another thread.
+	 *
+	 * @param storage the storage of the request, see {@link Activation#getStorage()}
+	 * @return the activation, which leaves the request when closed without releasing its instances
+	 */
+	public Activation enter(ScopeStorage storage) {
+		return new Activation(storage, false);
+	}
+
+	/**
+	 * An active request on one thread.
+	 */
+	public class Activation implements AutoCloseable {
+
+		private final ScopeStorage storage;
+
+		private final ScopeStorage previous;
+
+		private final boolean owner;
+
+		Activation(ScopeStorage storage, boolean owner) {
+			this.storage = storage;
+			this.owner = owner;
+			this.previous = RequestScope.this.current.get();
+			RequestScope.this.current.set(storage);
+		}
+
+		/**
+		 * @return the storage of the request, to join it from another thread
+		 */
+		public ScopeStorage getStorage() {
+			return this.storage;
+		}
+
+		@Override
+		public void close() {
+			if (this.previous == null) {
+				RequestScope.this.current.remove();
+			} else {
+				RequestScope.this.current.set(this.previous);
+			}
+			if (this.owner) {
+				this.storage.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package dev.philipp.depen;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link InjectionListener} that counts the resolutions and records the latencies of every binding:
+ * <pre>{@code
+ * ResolutionMetrics metrics = new ResolutionMetrics();
+ * injector.setListener(metrics);
+ * ...
+ * metrics.snapshot().forEach((token, binding) -> System.out.println(token + ": " + binding));
+ * }</pre>
+ * <p>
+ * Recording does not lock and, once a binding was seen, does not allocate. Latencies are kept in a histogram with
+ * one bucket per power of two nanoseconds.
+ * </p>
+ */
+public class ResolutionMetrics implements InjectionListener {
+
+	static final int BUCKETS = 64;
+
+	private final Map<InjectionToken<?>, Recorder> recorders = new ConcurrentHashMap<>();
+
+	@Override
+	public void resolved(InjectionToken<?> token, boolean cached, long nanos) {
+		Recorder recorder = this.recorders.get(token);
+		if (recorder == null) {
+			recorder = this.recorders.computeIfAbsent(token, t -> new Recorder());
+		}
+		recorder.record(cached, nanos);
+	}
+
+	/**
+	 * @return the metrics of every binding resolved so far, ordered by descending total time
+	 */
+	public Map<InjectionToken<?>, Snapshot> snapshot() {
+		List<Map.Entry<InjectionToken<?>, Snapshot>> entries = new ArrayList<>();
+		for (Map.Entry<InjectionToken<?>, Recorder> entry : this.recorders.entrySet()) {
+			entries.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().snapshot()));
+		}
+		entries.sort((a, b) -> Long.compare(b.getValue().getTotalNanos(), a.getValue().getTotalNanos()));
+		Map<InjectionToken<?>, Snapshot> snapshots = new LinkedHashMap<>();
+		for (Map.Entry<InjectionToken<?>, Snapshot> entry : entries) {
+			snapshots.put(entry.getKey(), entry.getValue());
+		}
+		return Collections.unmodifiableMap(snapshots);
+	}
+
+	/**
+	 * Discards everything recorded so far.
+	 */
+	public void reset() {
+		this.recorders.clear();
+	}
+
+	static int bucket(long nanos) {
+		return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+	}
+
+	private static final class Recorder {
+
+		private final LongAdder hits = new LongAdder();
+
+		private final LongAdder misses = new LongAdder();
+
+		private final LongAdder totalNanos = new LongAdder();
+
+		private final LongAdder creationNanos = new LongAdder();
+
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		void record(boolean cached, long nanos) {
+			if (cached) {
+				this.hits.increment();
+			} else {
+				this.misses.increment();
+				this.creationNanos.add(nanos);
+			}
+			this.totalNanos.add(nanos);
+			this.maxNanos.accumulate(nanos);
+			this.histogram.incrementAndGet(bucket(nanos));
+		}
+
+		Snapshot snapshot() {
+			long[] histogram = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram[i] = this.histogram.get(i);
+			}
+			return new Snapshot(this.hits.sum(), this.misses.sum(), this.totalNanos.sum(), this.creationNanos.sum(),
+					this.maxNanos.get(), histogram);
+		}
+	}
+
+	/**
+	 * The metrics of a single binding at the time of {@link ResolutionMetrics#snapshot()}. Values recorded while the
+	 * snapshot was taken may be missing in some of the numbers.
+	 */
+	public static final class Snapshot {
+
+		private final long hits;
+
+		private final long misses;
+
+		private final long totalNanos;
+
+		private final long creationNanos;
+
+		private final long maxNanos;
+
+		private final long[] histogram;
+
+		Snapshot(long hits, long misses, long totalNanos, long creationNanos, long maxNanos, long[] histogram) {
+			this.hits = hits;
+			this.misses = misses;
+			this.totalNanos = totalNanos;
+			this.creationNanos = creationNanos;
+			this.maxNanos = maxNanos;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * @return the number of resolutions
+		 */
+		public long getCount() {
+			return this.hits + this.misses;
+		}
+
+		/**
+		 * @return the number of resolutions that returned an existing instance, e.g. of a singleton already created
+		 */
+		public long getHits() {
+			return this.hits;
+		}
+
+		/**
+		 * @return the number of resolutions that created something, for a singleton usually one
+		 */
+		public long getMisses() {
+			return this.misses;
+		}
+
+		/**
+		 * @return the time of all resolutions, including their dependencies
+		 */
+		public long getTotalNanos() {
+			return this.totalNanos;
+		}
+
+		/**
+		 * @return the time of the resolutions that created something, for a singleton its construction time
+		 */
+		public long getCreationNanos() {
+			return this.creationNanos;
+		}
+
+		/**
+		 * @return the time of the slowest resolution
+		 */
+		public long getMaxNanos() {
+			return this.maxNanos;
+		}
+
+		/**
+		 * @return the number of resolutions per latency bucket, bucket {@code i} counts the resolutions that took
+		 * from {@code 2^i} up to {@code 2^(i+1)} nanoseconds
+		 */
+		public long[] getHistogram() {
+			return this.histogram.clone();
+		}
+
+		/**
+		 * @param percentile the percentile between 0 and 100
+		 * @return the upper bound of the histogram bucket containing the percentile, in nanoseconds
+		 */
+		public long getPercentileNanos(double percentile) {
+			long count = 0;
+			for (long bucket : this.histogram) {
+				count += bucket;
+			}
+			long rank = (long) Math.ceil(count * percentile / 100);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += this.histogram[i];
+				if (seen >= rank && seen > 0) {
+					return i == BUCKETS - 1 ? Long.MAX_VALUE : (2L << i) - 1;
+				}
+			}
+			return 0;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + this.getCount() + ", hits=" + this.hits + ", misses=" + this.misses
+					+ ", totalNanos=" + this.totalNanos + ", creationNanos=" + this.creationNanos
+					+ ", p50<=" + this.getPercentileNanos(50) + ", p99<=" + this.getPercentileNanos(99) + ", max=" + this.maxNanos;
+		}
+	}
+}
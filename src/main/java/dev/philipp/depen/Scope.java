@@ -0,0 +1,27 @@
+package dev.philipp.depen;
+
+/**
+ * Decides where the instances of a binding provided by {@link Injector.InjectionPoint#provideScoped(Class, Scope)} live.
+ * <p>
+ * A scope only has to return the {@link ScopeStorage} that is active for the current caller. The storage keeps one
+ * instance per scoped binding. Besides the shipped {@link ThreadScope} and {@link RequestScope}, any other context
+ * can be turned into a scope, e.g. a storage carried by a {@code ScopedValue} on newer Java versions:
+ * </p>
+ * <pre>{@code
+ * static final ScopedValue<ScopeStorage> STORAGE = ScopedValue.newInstance();
+ * 
+ * Scope scope = STORAGE::get;
+ * injector.forClass(Session.class).provideScoped(Session.class, scope);
+ * 
+ * ScopedValue.where(STORAGE, new ScopeStorage()).run(() -> injector.inject(Session.class));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface Scope {
+
+	/**
+	 * @return the storage of the scope active for the calling thread
+	 * @throws InjectionException if the scope is not active
+	 */
+	ScopeStorage storage();
+}
@@ -0,0 +1,124 @@
+package dev.philipp.depen;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The instances of the scoped bindings for one active scope, e.g. one thread or one request.
+ * <p>
+ * Every scoped binding gets a fixed slot of its scope when it is provided, so the storage is a compact array indexed
+ * by that slot instead of a map. The slots are counted per scope and the array only grows up to the highest slot
+ * stored, so a storage stays as small as the bindings of its scope. A storage therefore belongs to a single scope.
+ * Reading an existing instance is lock free. The storage may be shared by several threads, each instance is still
+ * created only once.
+ * </p>
+ * <p>
+ * A slot is handed back once the Injector of its binding is closed and given to the next binding of the scope, so
+ * short lived child Injectors do not grow the storages. Every instance is stored together with its binding, an
+ * instance an earlier binding of the slot left behind is ignored and replaced.
+ * </p>
+ */
+public final class ScopeStorage {
+
+	/**
+	 * The slots handed out per scope, a scope that is no longer used is dropped with its slots
+	 */
+	private static final Map<Scope, Slots> SLOTS = new WeakHashMap<>();
+
+	/**
+	 * The binding of a slot at twice the slot, its instance right after it
+	 */
+	private volatile AtomicReferenceArray<Object> instances;
+
+	/**
+	 * Creates an empty storage.
+	 */
+	public ScopeStorage() {
+		this.instances = new AtomicReferenceArray<>(16);
+	}
+
+	static int nextSlot(Scope scope) {
+		synchronized (SLOTS) {
+			return SLOTS.computeIfAbsent(scope, key -> new Slots()).next();
+		}
+	}
+
+	/**
+	 * Hands the slot back, the binding it was taken for must not be resolved anymore.
+	 */
+	static void freeSlot(Scope scope, int slot) {
+		synchronized (SLOTS) {
+			Slots slots = SLOTS.get(scope);
+			if (slots != null) {
+				slots.free.set(slot);
+			}
+		}
+	}
+
+	/**
+	 * @return the instance the binding stored in its slot, null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T get(int slot, Object binding) {
+		AtomicReferenceArray<Object> instances = this.instances;
+		int index = slot * 2;
+		if (index < instances.length() && instances.get(index) == binding) {
+			return (T) instances.get(index + 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Must be called while holding the lock of this storage.
+	 */
+	void put(int slot, Object binding, Object instance) {
+		AtomicReferenceArray<Object> instances = this.instances;
+		int index = slot * 2;
+		if (index >= instances.length()) {
+			AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(Math.max(index + 2, instances.length() * 2));
+			for (int i = 0; i < instances.length(); i++) {
+				grown.set(i, instances.get(i));
+			}
+			instances = grown;
+			this.instances = grown;
+		}
+		//the instance first, a reader seeing the binding sees its instance
+		instances.set(index + 1, instance);
+		instances.set(index, binding);
+	}
+
+	/**
+	 * @return the number of slots the storage has room for
+	 */
+	int capacity() {
+		return this.instances.length() / 2;
+	}
+
+	/**
+	 * Releases all instances of this storage.
+	 */
+	public synchronized void clear() {
+		this.instances = new AtomicReferenceArray<>(this.instances.length());
+	}
+
+	/**
+	 * The slots of one scope: the lowest free one is reused before a new one is counted.
+	 */
+	private static final class Slots {
+
+		private final BitSet free = new BitSet();
+
+		private int count;
+
+		int next() {
+			int slot = this.free.nextSetBit(0);
+			if (slot < 0) {
+				return this.count++;
+			}
+			this.free.clear(slot);
+			return slot;
+		}
+	}
+}
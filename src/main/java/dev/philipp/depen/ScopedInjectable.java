@@ -0,0 +1,42 @@
+package dev.philipp.depen;
+
+/**
+ * A binding with one instance per active {@link Scope}. The instance is kept in the slot of this binding inside the
+ * {@link ScopeStorage} the scope returns.
+ */
+class ScopedInjectable<T> extends ClassInjectable<T> {
+
+	private final Scope scope;
+
+	private final int slot;
+
+	ScopedInjectable(Class<T> clazz, Scope scope) {
+		super(clazz);
+		this.scope = scope;
+		this.slot = ScopeStorage.nextSlot(scope);
+	}
+
+	/**
+	 * Hands the slot back to the scope once the Injector of this binding is closed.
+	 */
+	void release() {
+		ScopeStorage.freeSlot(this.scope, this.slot);
+	}
+
+	@Override
+	T resolve(Injector injector, ClassTrace classTrace) {
+		ScopeStorage storage = this.scope.storage();
+		T instance = storage.get(this.slot, this);
+		if (instance != null) {
+			return instance;
+		}
+		synchronized (storage) {
+			instance = storage.get(this.slot, this);
+			if (instance == null) {
+				instance = super.resolve(injector, classTrace);
+				storage.put(this.slot, this, instance);
+			}
+			return instance;
+		}
+	}
+}
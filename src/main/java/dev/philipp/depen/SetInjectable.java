@@ -0,0 +1,17 @@
+package dev.philipp.depen;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set multibinding, injected as an immutable {@code List} of its elements in the order they were added.
+ */
+class SetInjectable<E> extends MultibindingInjectable<List<E>> {
+
+	@SuppressWarnings("unchecked")
+	@Override
+	List<E> collect(Object[] instances) {
+		return Collections.unmodifiableList(Arrays.asList((E[]) instances));
+	}
+}
@@ -0,0 +1,224 @@
+package dev.philipp.depen;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import dev.philipp.depen.InjectionToken.ResolutionScope;
+
+/**
+ * Closes the {@link AutoCloseable} singletons of an {@link Injector} in reverse dependency order: a singleton
+ * is closed once every singleton that resolved it while being created is closed. Independent singletons are closed
+ * in parallel, so closing takes as long as the slowest chain of dependent singletons.
+ * <p>
+ * Singletons are the created instances of {@link InstanceInjectable} bindings and multibinding elements, and the
+ * completed instances of {@link AsyncInjectable} bindings. The elements of a multibinding are closed after
+ * everything that injected the multibinding. The dependency graph is only built if there are at least two
+ * singletons to close.
+ * </p>
+ * <p>
+ * Every singleton gets the timeout on its own, starting when it begins to close. A singleton that fails or times
+ * out is reported, the singletons it depends on are closed anyway. Every close call runs on a daemon thread, so a
+ * close that ignores the interrupt at the timeout keeps running without blocking the caller.
+ * </p>
+ */
+final class Shutdown {
+
+	private final Duration timeout;
+
+	/**
+	 * The singletons to close per binding, in the order the bindings were provided
+	 */
+	private final Map<InjectionToken<?>, List<Closeable>> closeables = new LinkedHashMap<>();
+
+	private final int count;
+
+	private final DependencyGraph graph;
+
+	private final List<String> problems = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<Throwable> causes = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 * Collects the singletons, must be called before the bindings of the injector are released.
+	 */
+	Shutdown(Injector injector, Duration timeout) {
+		this.timeout = timeout;
+		int count = 0;
+		for (Map.Entry<InjectionToken<?>, Injectable<?>> entry : injector.bindings().asMap().entrySet()) {
+			InjectionToken<?> token = entry.getKey();
+			List<Closeable> closeables = new ArrayList<>(1);
+			if (entry.getValue() instanceof MultibindingInjectable) {
+				for (Injectable<?> element : ((MultibindingInjectable<?>) entry.getValue()).getElements()) {
+					collect(closeables, element, null);
+				}
+			} else {
+				collect(closeables, entry.getValue(), token.getScope() == ResolutionScope.CLASS ? token.getClazz().getSimpleName() : token.toString());
+			}
+			if (!closeables.isEmpty()) {
+				this.closeables.put(token, closeables);
+				count += closeables.size();
+			}
+		}
+		this.count = count;
+		this.graph = count > 1 ? new DependencyGraph(injector) : null;
+	}
+
+	/**
+	 * @throws CloseException if a singleton failed to close or timed out
+	 */
+	void run() {
+		if (this.count == 0) {
+			return;
+		}
+		ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "depen-close");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			if (this.count == 1) {
+				//even a single close runs on the pool, so a close ignoring interrupts can not block the caller
+				this.close(this.closeables.values().iterator().next().get(0), executor).join();
+			} else {
+				this.closeInParallel(executor);
+			}
+		} finally {
+			//interrupts the singletons that timed out
+			executor.shutdownNow();
+		}
+		if (!this.problems.isEmpty()) {
+			throw new CloseException(this.problems, this.causes);
+		}
+	}
+
+	private void closeInParallel(Executor executor) {
+		List<DependencyGraph.Node> order = this.graph.getTopologicalOrder();
+		Map<DependencyGraph.Node, List<DependencyGraph.Node>> dependents = new HashMap<>();
+		for (DependencyGraph.Node node : order) {
+			if (this.isCloseable(node)) {
+				for (DependencyGraph.Node dependency : this.graph.getClosestDependencies(node, this::isCloseable)) {
+					dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(node);
+				}
+			}
+		}
+		Map<DependencyGraph.Node, CompletableFuture<Void>> closed = new HashMap<>();
+		for (int i = order.size() - 1; i >= 0; i--) {
+			DependencyGraph.Node node = order.get(i);
+			List<Closeable> closeables = this.closeables.get(node.token);
+			if (closeables == null) {
+				continue;
+			}
+			List<CompletableFuture<Void>> waits = new ArrayList<>();
+			for (DependencyGraph.Node dependent : dependents.getOrDefault(node, Collections.emptyList())) {
+				//dependents on a circle with this node may not be scheduled yet, they are not waited for
+				CompletableFuture<Void> dependentClosed = closed.get(dependent);
+				if (dependentClosed != null) {
+					waits.add(dependentClosed);
+				}
+			}
+			CompletableFuture<Void> ready = CompletableFuture.allOf(waits.toArray(new CompletableFuture<?>[0]));
+			CompletableFuture<?>[] elementsClosed = new CompletableFuture<?>[closeables.size()];
+			for (int c = 0; c < elementsClosed.length; c++) {
+				Closeable closeable = closeables.get(c);
+				elementsClosed[c] = ready.thenCompose(ignored -> this.close(closeable, executor));
+			}
+			closed.put(node, CompletableFuture.allOf(elementsClosed));
+		}
+		CompletableFuture.allOf(closed.values().toArray(new CompletableFuture<?>[0])).join();
+	}
+
+	/**
+	 * @return a future completing normally once the instance is closed, failed or timed out
+	 */
+	private CompletableFuture<Void> close(Closeable closeable, Executor executor) {
+		CompletableFuture<Void> closing = CompletableFuture.runAsync(() -> {
+			try {
+				closeable.instance.close();
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+		//CompletableFuture.orTimeout needs Java 9
+		ScheduledFuture<?> timeout = Timer.TIMER.schedule(() -> closing.completeExceptionally(new TimeoutException()),
+				this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+		return closing.handle((ignored, e) -> {
+			timeout.cancel(false);
+			if (e != null) {
+				this.report(closeable, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+			}
+			return null;
+		});
+	}
+
+	private void report(Closeable closeable, Throwable cause) {
+		if (cause instanceof TimeoutException) {
+			this.problems.add(closeable.name + " not closed within " + this.timeout.toMillis() + " ms");
+		} else {
+			this.problems.add(closeable.name + " failed to close: " + cause);
+		}
+		this.causes.add(cause);
+	}
+
+	private boolean isCloseable(DependencyGraph.Node node) {
+		return this.closeables.containsKey(node.token);
+	}
+
+	/**
+	 * @param name the name of the binding, or null to name a multibinding element by its class
+	 */
+	private static void collect(List<Closeable> closeables, Injectable<?> injectable, String name) {
+		Object instance;
+		if (injectable instanceof InstanceInjectable) {
+			instance = ((InstanceInjectable<?>) injectable).getInstance();
+		} else if (injectable instanceof AsyncInjectable) {
+			instance = ((AsyncInjectable<?>) injectable).getInstance();
+		} else {
+			return;
+		}
+		if (instance instanceof AutoCloseable) {
+			closeables.add(new Closeable(name != null ? name : instance.getClass().getSimpleName(), (AutoCloseable) instance));
+		}
+	}
+
+	private static final class Closeable {
+
+		final String name;
+
+		final AutoCloseable instance;
+
+		Closeable(String name, AutoCloseable instance) {
+			this.name = name;
+			this.instance = instance;
+		}
+	}
+
+	/**
+	 * The thread timing out the close calls, only started once the first singleton is closed.
+	 */
+	private static final class Timer {
+
+		static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "depen-close-timeout");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		static {
+			TIMER.setRemoveOnCancelPolicy(true);
+		}
+	}
+}
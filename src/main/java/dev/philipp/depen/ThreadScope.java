@@ -0,0 +1,25 @@
+package dev.philipp.depen;
+
+/**
+ * A {@link Scope} with one instance per thread.
+ * <p>
+ * The storage of a thread lives until {@link #clear()} is called on that thread, so threads of a pool should clear
+ * the scope after every task.
+ * </p>
+ */
+public class ThreadScope implements Scope {
+
+	private final ThreadLocal<ScopeStorage> storage = ThreadLocal.withInitial(ScopeStorage::new);
+
+	@Override
+	public ScopeStorage storage() {
+		return this.storage.get();
+	}
+
+	/**
+	 * Releases all instances of the calling thread.
+	 */
+	public void clear() {
+		this.storage.remove();
+	}
+}
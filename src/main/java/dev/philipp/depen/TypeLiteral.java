@@ -0,0 +1,166 @@
+package dev.philipp.depen;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A generic type, captured by an anonymous subclass, to provide and inject parameterized types under their own key.
+ * <p><b>Example usage:</b></p>
+ * <pre>{@code
+ * injector.forType(new TypeLiteral<Cache<User>>() {}).provideInstanceOf(UserCache.class);
+ * injector.forType(new TypeLiteral<Cache<Order>>() {}).provideInstanceOf(OrderCache.class);
+ *
+ * public class Checkout {
+ *     @Inject Cache<Order> orders; // the OrderCache
+ * }
+ * }</pre>
+ * <p>
+ * Constructor parameters and fields of a parameterized type are looked up under their full type first, and under
+ * their raw class if the full type is not provided. Only types whose arguments are classes or parameterized types
+ * themselves can be keys, wildcards and type variables are looked up by the raw class only.
+ * </p>
+ *
+ * @param <T> the captured type
+ */
+public class TypeLiteral<T> {
+
+	private final Type type;
+
+	/**
+	 * The interned token, cached by {@link InjectionToken#of(TypeLiteral)}. Tokens are immutable, so a race only
+	 * looks the token up twice.
+	 */
+	InjectionToken<T> token;
+
+	/**
+	 * Captures the type argument of the anonymous subclass.
+	 */
+	protected TypeLiteral() {
+		Type superclass = this.getClass().getGenericSuperclass();
+		if (!(superclass instanceof ParameterizedType)) {
+			throw new InjectionException("TypeLiteral needs a type argument, e.g. new TypeLiteral<List<String>>() {}");
+		}
+		this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+	}
+
+	/**
+	 * @return the captured type, a class or a parameterized type
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.type.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof TypeLiteral && this.type.equals(((TypeLiteral<?>) obj).type);
+	}
+
+	@Override
+	public String toString() {
+		return this.type.getTypeName();
+	}
+
+	/**
+	 * @return an equal type which only references classes and canonical parameterized types,
+	 * or null if the type contains wildcards, type variables or generic arrays
+	 */
+	static Type canonicalize(Type type) {
+		if (type instanceof Class) {
+			return type;
+		}
+		if (type instanceof Key) {
+			return type;
+		}
+		if (!(type instanceof ParameterizedType)) {
+			return null;
+		}
+		ParameterizedType parameterized = (ParameterizedType) type;
+		Class<?> raw = (Class<?>) parameterized.getRawType();
+		if (parameterized.getOwnerType() != null && parameterized.getOwnerType() != raw.getDeclaringClass()) {
+			//a member of a parameterized outer class
+			return null;
+		}
+		Type[] arguments = parameterized.getActualTypeArguments();
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = canonicalize(arguments[i]);
+			if (arguments[i] == null) {
+				return null;
+			}
+		}
+		return new Key(raw, arguments);
+	}
+
+	/**
+	 * A parameterized type equal to the ones created by reflection, with the same hash code, so either can be
+	 * used to look the other one up.
+	 */
+	private static final class Key implements ParameterizedType {
+
+		private final Class<?> raw;
+
+		private final Type[] arguments;
+
+		private final int hashCode;
+
+		Key(Class<?> raw, Type[] arguments) {
+			this.raw = raw;
+			this.arguments = arguments;
+			this.hashCode = Arrays.hashCode(arguments) ^ Objects.hashCode(raw.getDeclaringClass()) ^ raw.hashCode();
+		}
+
+		@Override
+		public Type[] getActualTypeArguments() {
+			return this.arguments.clone();
+		}
+
+		@Override
+		public Type getRawType() {
+			return this.raw;
+		}
+
+		@Override
+		public Type getOwnerType() {
+			return this.raw.getDeclaringClass();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ParameterizedType)) {
+				return false;
+			}
+			ParameterizedType other = (ParameterizedType) obj;
+			return this.raw.equals(other.getRawType()) && Objects.equals(this.getOwnerType(), other.getOwnerType())
+					&& Arrays.equals(this.arguments, other.getActualTypeArguments());
+		}
+
+		@Override
+		public String getTypeName() {
+			StringJoiner joiner = new StringJoiner(", ", this.raw.getName() + "<", ">");
+			for (Type argument : this.arguments) {
+				joiner.add(argument.getTypeName());
+			}
+			return joiner.toString();
+		}
+
+		@Override
+		public String toString() {
+			return this.getTypeName();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package dev.philipp.depen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by {@link Injector#validate()} with every problem found in the bindings at once.
+ */
+public class ValidationException extends InjectionException {
+
+	private static final long serialVersionUID = -4581236672460923184L;
+
+	private final List<String> problems;
+
+	ValidationException(List<String> problems) {
+		super(problems.size() + " problem(s) found:\n" + String.join("\n", problems));
+		this.problems = Collections.unmodifiableList(new ArrayList<>(problems));
+	}
+
+	/**
+	 * @return one message per missing binding, circular dependency or class without injectable constructor
+	 */
+	public List<String> getProblems() {
+		return problems;
+	}
+}
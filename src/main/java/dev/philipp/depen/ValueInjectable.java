@@ -1,7 +1,5 @@
 package dev.philipp.depen;
 
-import dev.philipp.depen.Injector.ResolutionContext;
-
 class ValueInjectable<T> extends Injectable<T> {
 
     private final T value;
@@ -11,7 +9,17 @@ class ValueInjectable<T> extends Injectable<T> {
     }
 
     @Override
-    T resolve(ResolutionContext resolutionContext) {
+    T resolve(Injector injector, ClassTrace classTrace) {
         return this.value;
     }
+
+    @Override
+    boolean isShared() {
+    	return true;
+    }
+
+    @Override
+    boolean isCached() {
+    	return true;
+    }
 }
@@ -0,0 +1,128 @@
+package dev.philipp.depen;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Accessors.FieldWriter;
+import dev.philipp.depen.Accessors.Instantiator;
+
+public class AccessorsTest {
+
+	@Test
+	public void testHandleInstantiator() throws Exception {
+		assertInstantiation(false);
+	}
+	
+	@Test
+	public void testReflectionInstantiator() throws Exception {
+		assertInstantiation(true);
+	}
+	
+	@Test
+	public void testHandleFieldWriter() throws Exception {
+		assertFieldWrite(false);
+	}
+	
+	@Test
+	public void testReflectionFieldWriter() throws Exception {
+		assertFieldWrite(true);
+	}
+	
+	@Test
+	public void testHandleExceptionIsWrapped() throws Exception {
+		Instantiator<Failing> instantiator = Accessors.instantiator(Failing.class.getConstructor(), false);
+		try {
+			instantiator.newInstance(new Object[0]);
+			fail();
+		} catch (InvocationTargetException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+	
+	@Test(expected = InjectionException.class)
+	public void testHandleFieldWriterWrongType() throws Exception {
+		Field field = Target.class.getDeclaredField("text");
+		field.setAccessible(true);
+		FieldWriter writer = Accessors.writer(field, false);
+		writer.set(new Target("a", 1), Integer.valueOf(1));
+	}
+	
+	@Test
+	public void testHandleStaticFieldWriter() throws Exception {
+		Field field = Target.class.getDeclaredField("shared");
+		field.setAccessible(true);
+		FieldWriter writer = Accessors.writer(field, false);
+		writer.set(new Target("a", 1), "b");
+		assertEquals("b", Target.shared);
+		writer.set(null, "c");
+		assertEquals("c", Target.shared);
+	}
+	
+	@Test
+	public void testHandleStaticMethodCaller() throws Exception {
+		Method method = Target.class.getDeclaredMethod("count");
+		method.setAccessible(true);
+		Target.counted = 0;
+		Accessors.caller(method, false).call(new Target("a", 1));
+		assertEquals(1, Target.counted);
+	}
+	
+	@Test
+	public void testTieredInstantiatorSwitchesToHandle() throws Exception {
+		Instantiator<Target> instantiator = Accessors.instantiator(Target.class.getConstructor(String.class, int.class));
+		assumeTrue(instantiator instanceof Accessors.Tiered);
+		for (int i = 0; i < Accessors.HOT_CALLS; i++) {
+			assertEquals(i, instantiator.newInstance(new Object[] {"a", i}).number);
+		}
+		Instantiator<Target> hot = Accessors.hot(instantiator);
+		assertNotSame(instantiator, hot);
+		assertSame(hot, Accessors.hot(instantiator));
+		assertEquals(7, instantiator.newInstance(new Object[] {"a", 7}).number);
+	}
+	
+	private void assertInstantiation(boolean reflection) throws Exception {
+		Constructor<Target> constructor = Target.class.getConstructor(String.class, int.class);
+		Instantiator<Target> instantiator = Accessors.instantiator(constructor, reflection);
+		Target target = instantiator.newInstance(new Object[] {"a", 1});
+		assertEquals("a", target.text);
+		assertEquals(1, target.number);
+	}
+	
+	private void assertFieldWrite(boolean reflection) throws Exception {
+		Field field = Target.class.getDeclaredField("text");
+		field.setAccessible(true);
+		FieldWriter writer = Accessors.writer(field, reflection);
+		Target target = new Target("a", 1);
+		writer.set(target, "b");
+		assertEquals("b", target.text);
+	}
+	
+	public static class Target {
+		private static String shared;
+		private static int counted;
+		private String text;
+		private final int number;
+		
+		public Target(String text, int number) {
+			this.text = text;
+			this.number = number;
+		}
+		
+		private static void count() {
+			counted++;
+		}
+	}
+	
+	public static class Failing {
+		public Failing() {
+			throw new IllegalStateException();
+		}
+	}
+}
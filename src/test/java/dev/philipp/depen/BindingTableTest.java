@@ -0,0 +1,49 @@
+package dev.philipp.depen;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BindingTableTest {
+
+	@Test
+	public void testPutAndReplace() {
+		BindingTable table = new BindingTable();
+		List<InjectionToken<String>> tokens = new ArrayList<>();
+		List<ValueInjectable<String>> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			tokens.add(InjectionToken.create(String.class, "Token " + i));
+			values.add(new ValueInjectable<>("value " + i));
+			table.put(tokens.get(i), values.get(i));
+		}
+		for (int i = 0; i < 100; i++) {
+			assertSame(values.get(i), table.get(tokens.get(i)));
+		}
+		assertNull(table.get(InjectionToken.create(String.class, "Other")));
+		ValueInjectable<String> replaced = new ValueInjectable<>("replaced");
+		table.put(tokens.get(42), replaced);
+		assertSame(replaced, table.get(tokens.get(42)));
+		assertEquals(100, table.size());
+		assertEquals(tokens, new ArrayList<>(table.asMap().keySet()));
+		table.clear();
+		assertNull(table.get(tokens.get(0)));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	public void testChildMemoryIsBoundedByItsBindings() {
+		Injector parent = new Injector();
+		for (int i = 0; i < 100_000; i++) {
+			parent.forToken(InjectionToken.create(String.class, "Token " + i)).provideValue("value " + i);
+		}
+		InjectionToken<String> token = InjectionToken.create(String.class, "Child");
+		Injector child = parent.createChild();
+		child.forToken(token).provideValue("child");
+		assertEquals("child", child.inject(token));
+		assertTrue(child.bindings().capacity() <= 4);
+		assertTrue(parent.bindings().capacity() <= 4 * 100_000);
+	}
+}
@@ -0,0 +1,77 @@
+package dev.philipp.depen;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+public class ClassTraceTest {
+
+	@Test
+	public void testPushAndPop() {
+		ClassTrace trace = new ClassTrace();
+		trace.push(String.class);
+		trace.push(Integer.class);
+		assertTrue(trace.contains(String.class));
+		assertEquals("Integer -> String", trace.toString());
+		assertEquals(Integer.class, trace.pop());
+		assertFalse(trace.contains(Integer.class));
+		assertEquals(1, trace.depth());
+	}
+	
+	@Test
+	public void testCircle() {
+		ClassTrace trace = new ClassTrace();
+		trace.push(String.class);
+		trace.push(Integer.class);
+		try {
+			trace.push(String.class);
+			fail();
+		} catch (CircularDependencyException e) {
+			assertEquals("Circular dependency detected: String -> Integer -> String", e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testGrowAndReset() {
+		ClassTrace trace = new ClassTrace();
+		Class<?>[] classes = {String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class,
+				Float.class, Character.class, Boolean.class, Object.class, Number.class, BigDecimal.class,
+				StringBuilder.class, StringBuffer.class, Thread.class, Runnable.class, Class.class, Void.class};
+		for (Class<?> clazz : classes) {
+			trace.push(clazz);
+		}
+		assertEquals(classes.length, trace.depth());
+		trace.reset(2);
+		assertEquals(2, trace.depth());
+		assertFalse(trace.contains(Void.class));
+		trace.push(Void.class);
+	}
+	
+	@Test
+	public void testDisabled() {
+		ClassTrace.DISABLED.push(String.class);
+		ClassTrace.DISABLED.push(String.class);
+		assertEquals(0, ClassTrace.DISABLED.depth());
+	}
+	
+	@Test
+	public void testCurrentIsReusedAndReset() {
+		Injector injector = new Injector();
+		injector.provide(Failing.class);
+		try {
+			injector.inject(Failing.class);
+			fail();
+		} catch (RuntimeException e) {
+			assertEquals(0, ClassTrace.current().depth());
+		}
+		assertSame(ClassTrace.current(), injector.trace());
+	}
+	
+	public static class Failing {
+		public Failing() {
+			throw new IllegalStateException("fails");
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package dev.philipp.depen;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import dev.philipp.depen.InjectionToken.ResolutionScope;
+
+public class ConstructionPlanTest {
+
+	@Test
+	public void testPlanIsCached() {
+		assertSame(ConstructionPlan.of(Annotated.class), ConstructionPlan.of(Annotated.class));
+	}
+	
+	@Test
+	public void testParameterTokens() {
+		ConstructionPlan<Annotated> plan = ConstructionPlan.of(Annotated.class);
+		assertEquals(2, plan.parameters.length);
+		assertEquals(new InjectionToken<>(Number.class, ResolutionScope.CLASS), plan.parameters[0].token);
+		assertTrue(plan.parameters[0].optional);
+		assertEquals(new InjectionToken<>(StringBuilder.class, ResolutionScope.CLASS), plan.parameters[1].token);
+		assertFalse(plan.parameters[1].optional);
+	}
+	
+	@Test
+	public void testPreferNoParamConstructor() {
+		assertEquals(0, ConstructionPlan.of(TwoConstructors.class).parameters.length);
+	}
+	
+	@Test(expected = InjectionException.class)
+	public void testAmbiguousConstructors() {
+		ConstructionPlan.of(Ambiguous.class);
+	}
+	
+	public static class Annotated {
+		public Annotated(@Inject(value = Number.class, optional = true) BigDecimal number, StringBuilder builder) {
+		}
+	}
+	
+	public static class TwoConstructors {
+		public TwoConstructors() {
+		}
+		public TwoConstructors(StringBuilder builder) {
+		}
+	}
+	
+	public static class Ambiguous {
+		public Ambiguous(StringBuilder builder) {
+		}
+		public Ambiguous(BigDecimal number) {
+		}
+	}
+}
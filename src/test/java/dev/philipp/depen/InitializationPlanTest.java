@@ -0,0 +1,51 @@
+package dev.philipp.depen;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+public class InitializationPlanTest {
+
+	@Test
+	public void testPlanIsCached() {
+		assertSame(InitializationPlan.of(Sub.class), InitializationPlan.of(Sub.class));
+	}
+	
+	@Test
+	public void testSuperclassFields() {
+		InitializationPlan plan = InitializationPlan.of(Sub.class);
+		assertEquals(2, plan.names.length);
+		assertEquals("number", plan.names[0]);
+		assertEquals("builder", plan.names[1]);
+		assertTrue(plan.dependencies[1].optional);
+	}
+	
+	@Test
+	public void testProvides() {
+		assertArrayEquals(new Class<?>[] {StringBuilder.class}, InitializationPlan.of(Sub.class).provides);
+	}
+	
+	@Test
+	public void testSuperclassFieldInjection() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.ONE);
+		injector.provide(StringBuilder.class);
+		Sub sub = new Sub();
+		injector.initialize(sub);
+		assertEquals(BigDecimal.ONE, sub.number);
+		assertNotNull(sub.builder);
+	}
+	
+	public static class Base {
+		@Inject BigDecimal number;
+	}
+	
+	@Provide(StringBuilder.class)
+	public static class Sub extends Base {
+		@Inject(optional = true) StringBuilder builder;
+		
+		String notInjected;
+	}
+}
@@ -83,5 +83,35 @@ public class InjectorTest {
 		injector.inject(new InjectionToken<>(StringBuilder.class, ResolutionScope.CLASS));
 	}
 	
+	@Test
+	public void testResolutionContextIsLazy() {
+		Injector injector = new Injector();
+		Injector.ResolutionContext context = injector.new ResolutionContext(new ClassTrace());
+		assertNull(context.overlayTokens);
+		assertSame(context, context.inject(Injector.class));
+		context.forClass(BigDecimal.class).provideValue(BigDecimal.ONE);
+		assertNotNull(context.overlayTokens);
+		assertEquals(BigDecimal.ONE, context.inject(BigDecimal.class));
+		assertNull(injector.injectOptional(BigDecimal.class));
+	}
+	
+	@Test
+	public void testTokenIds() {
+		assertSame(InjectionToken.of(BigDecimal.class), InjectionToken.of(BigDecimal.class));
+		assertEquals(InjectionToken.of(BigDecimal.class).id, new InjectionToken<>(BigDecimal.class, ResolutionScope.CLASS).id);
+		assertSame(InjectionToken.map(String.class, BigDecimal.class), InjectionToken.map(String.class, BigDecimal.class));
+		assertNotEquals(InjectionToken.of(BigDecimal.class).id, InjectionToken.set(BigDecimal.class).id);
+		assertNotEquals(InjectionToken.create(BigDecimal.class, "A").id, InjectionToken.create(BigDecimal.class, "A").id);
+	}
+	
+	@Test
+	public void testResolutionContextFallsBackToInjector() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		Injector.ResolutionContext context = injector.new ResolutionContext(new ClassTrace());
+		context.provideSelf(new InjectionToken<>(StringBuilder.class, ResolutionScope.CLASS), new StringBuilder("self"));
+		assertEquals(BigDecimal.TEN, context.inject(BigDecimal.class));
+		assertEquals("self", context.inject(StringBuilder.class).toString());
+	}
 
 }
@@ -0,0 +1,56 @@
+package dev.philipp.depen;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ScopeStorageTest {
+
+	@Test
+	public void testSlotsArePerScope() {
+		ThreadScope busy = new ThreadScope();
+		for (int i = 0; i < 1000; i++) {
+			new ScopedInjectable<>(Object.class, busy);
+		}
+		ThreadScope scope = new ThreadScope();
+		assertEquals(0, ScopeStorage.nextSlot(scope));
+		assertEquals(1, ScopeStorage.nextSlot(scope));
+		assertEquals(1000, ScopeStorage.nextSlot(busy));
+	}
+
+	@Test
+	public void testGrowOnPut() {
+		ScopeStorage storage = new ScopeStorage();
+		Object binding = new Object();
+		assertNull(storage.get(100, binding));
+		synchronized (storage) {
+			storage.put(100, binding, "value");
+		}
+		assertEquals("value", storage.get(100, binding));
+		assertNull(storage.get(100, new Object()));
+		storage.clear();
+		assertNull(storage.get(100, binding));
+	}
+
+	@Test
+	public void testClosedChildrenFreeTheirSlots() {
+		RequestScope scope = new RequestScope();
+		Injector injector = new Injector();
+		try (RequestScope.Activation request = scope.enter()) {
+			ScopeStorage storage = request.getStorage();
+			Object previous = null;
+			for (int i = 0; i < 10_000; i++) {
+				Injector child = injector.createChild();
+				child.forClass(StringBuilder.class).provideScoped(StringBuilder.class, scope);
+				StringBuilder instance = child.inject(StringBuilder.class);
+				assertSame(instance, child.inject(StringBuilder.class));
+				//the slot is reused, the instance of the closed child is not
+				assertNotSame(previous, instance);
+				previous = instance;
+				child.close();
+			}
+			assertEquals(8, storage.capacity());
+			assertEquals(0, ScopeStorage.nextSlot(scope));
+		}
+	}
+}
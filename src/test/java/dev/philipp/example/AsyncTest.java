@@ -0,0 +1,149 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionException;
+import dev.philipp.depen.Injector;
+
+public class AsyncTest {
+
+	@Test
+	public void testConcurrentCallersShareOneConstruction() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<RemoteConfig> remote = new CompletableFuture<>();
+		Injector injector = new Injector();
+		injector.forClass(RemoteConfig.class).provideAsync(i -> {
+			calls.incrementAndGet();
+			return remote;
+		});
+		CompletableFuture<RemoteConfig> first = injector.injectAsync(RemoteConfig.class);
+		CompletableFuture<RemoteConfig> second = injector.injectAsync(RemoteConfig.class);
+		assertFalse(first.isDone());
+		RemoteConfig config = new RemoteConfig();
+		remote.complete(config);
+		assertSame(config, first.get());
+		assertSame(config, second.get());
+		assertSame(config, injector.inject(RemoteConfig.class));
+		assertEquals(1, calls.get());
+	}
+	
+	@Test
+	public void testDependentBindingWaitsWithoutBlocking() throws Exception {
+		CompletableFuture<RemoteConfig> remote = new CompletableFuture<>();
+		Injector injector = new Injector();
+		injector.forClass(RemoteConfig.class).provideAsync(i -> remote);
+		injector.forClass(Cache.class).provideInstanceOf(Cache.class);
+		injector.provide(Handler.class);
+		CompletableFuture<Handler> handler = injector.injectAsync(Handler.class);
+		assertFalse(handler.isDone());
+		remote.complete(new RemoteConfig());
+		assertSame(injector.inject(RemoteConfig.class), handler.get().cache.config);
+	}
+	
+	@Test
+	public void testAsyncComposition() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Injector injector = new Injector();
+			injector.forClass(RemoteConfig.class).provideAsync(i -> CompletableFuture.supplyAsync(RemoteConfig::new, executor));
+			injector.forClass(Cache.class).provideAsync(Cache.class, executor);
+			injector.forClass(Warmed.class).provideAsync(i -> i.injectAsync(Cache.class).thenApply(Warmed::new));
+			Warmed warmed = injector.injectAsync(Warmed.class).get();
+			assertSame(injector.inject(Cache.class), warmed.cache);
+			assertSame(injector.inject(RemoteConfig.class), warmed.cache.config);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testFailureIsRetried() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		Injector injector = new Injector();
+		injector.forClass(RemoteConfig.class).provideAsync(i -> {
+			CompletableFuture<RemoteConfig> future = new CompletableFuture<>();
+			if (calls.incrementAndGet() == 1) {
+				future.completeExceptionally(new IllegalStateException("unavailable"));
+			} else {
+				future.complete(new RemoteConfig());
+			}
+			return future;
+		});
+		try {
+			injector.injectAsync(RemoteConfig.class).get();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertTrue(injector.injectAsync(RemoteConfig.class).get() != null);
+		assertEquals(2, calls.get());
+	}
+	
+	@Test
+	public void testErrorInFactoryIsRetried() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		Injector injector = new Injector();
+		injector.forClass(RemoteConfig.class).provideAsync(i -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new ExceptionInInitializerError("broken");
+			}
+			return CompletableFuture.completedFuture(new RemoteConfig());
+		});
+		try {
+			injector.injectAsync(RemoteConfig.class);
+			fail();
+		} catch (ExceptionInInitializerError e) {
+			assertEquals("broken", e.getMessage());
+		}
+		assertTrue(injector.injectAsync(RemoteConfig.class).get(5, TimeUnit.SECONDS) != null);
+		assertEquals(2, calls.get());
+	}
+	
+	@Test
+	public void testMissingBinding() throws Exception {
+		Injector injector = new Injector();
+		try {
+			injector.injectAsync(RemoteConfig.class).get();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof InjectionException);
+			return;
+		}
+		throw new AssertionError("missing binding not reported");
+	}
+	
+	public static class RemoteConfig {
+	}
+	
+	public static class Cache {
+		final RemoteConfig config;
+		
+		public Cache(RemoteConfig config) {
+			this.config = config;
+		}
+	}
+	
+	public static class Warmed {
+		final Cache cache;
+		
+		public Warmed(Cache cache) {
+			this.cache = cache;
+		}
+	}
+	
+	public static class Handler {
+		@Inject Cache cache;
+	}
+}
@@ -0,0 +1,105 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.philipp.depen.BindingGraph;
+import dev.philipp.depen.BindingGraph.Node;
+import dev.philipp.depen.BindingGraph.Scope;
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+
+public class BindingGraphTest {
+
+	@Test
+	public void testNodes() {
+		BindingGraph graph = this.injector().graph();
+		//the Injector is bound to itself
+		assertEquals(7, graph.getNodes().size());
+		assertEquals(Scope.VALUE, graph.getNode(Injector.class).getScope());
+		assertTrue(graph.getProblems().isEmpty());
+
+		Node parser = graph.getNode(Parser.class);
+		assertEquals(Scope.PROTOTYPE, parser.getScope());
+		assertEquals(2, parser.getFanIn());
+		assertEquals(1, parser.getFanOut());
+		assertEquals(1, parser.getTransitiveDependencyCount());
+		assertEquals(Scope.VALUE, graph.getNode(BigDecimal.class).getScope());
+		assertEquals(Scope.FACTORY, graph.getNode(StringBuilder.class).getScope());
+
+		Node importer = graph.getNode(Importer.class);
+		assertEquals(Scope.SINGLETON, importer.getScope());
+		assertEquals(4, importer.getTransitiveDependencyCount());
+		assertNull(graph.getNode(Runnable.class));
+	}
+
+	@Test
+	public void testHeavyPrototypes() {
+		BindingGraph graph = this.injector().graph();
+		Node parser = graph.getNode(Parser.class);
+		//one singleton resolves the parser directly, the other through a prototype
+		assertEquals(2, parser.getSingletonDependents().size());
+		assertEquals(1, graph.getNode(Reader.class).getSingletonDependents().size());
+		List<Node> heavy = graph.getHeavyPrototypes(2);
+		assertEquals(1, heavy.size());
+		assertEquals(parser, heavy.get(0));
+		assertEquals(2, graph.getHeavyPrototypes(1).size());
+	}
+
+	@Test
+	public void testExport() {
+		BindingGraph graph = this.injector().graph();
+		String dot = graph.toDot();
+		assertTrue(dot.startsWith("digraph bindings {"));
+		assertTrue(dot.contains("[label=\"Parser\\nPROTOTYPE\", color=red]"));
+		assertTrue(dot.contains("[label=\"Importer\\nSINGLETON\", style=bold]"));
+
+		String json = graph.toJson();
+		assertTrue(json.contains("\"name\":\"Parser\""));
+		assertTrue(json.contains("\"scope\":\"PROTOTYPE\",\"fanIn\":2,\"fanOut\":1,\"transitiveDependencies\":1,\"singletonDependents\":2"));
+		assertTrue(json.endsWith("\"problems\":[]}"));
+	}
+
+	@Test
+	public void testProblemsAreNotThrown() {
+		Injector injector = new Injector();
+		injector.provide(Parser.class);
+		BindingGraph graph = injector.graph();
+		assertEquals(1, graph.getProblems().size());
+		assertTrue(graph.toJson().contains("BigDecimal not provided"));
+	}
+
+	private Injector injector() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		injector.forClass(StringBuilder.class).provideFactory(i -> new StringBuilder());
+		injector.provide(Parser.class);
+		injector.provide(Reader.class);
+		injector.forClass(Importer.class).provideInstanceOf(Importer.class);
+		injector.forClass(Exporter.class).provideInstanceOf(Exporter.class);
+		return injector;
+	}
+
+	public static class Parser {
+		@Inject BigDecimal precision;
+	}
+
+	public static class Reader {
+		@Inject Parser parser;
+		@Inject StringBuilder buffer;
+	}
+
+	public static class Importer {
+		@Inject Reader reader;
+	}
+
+	public static class Exporter {
+		@Inject Parser parser;
+	}
+}
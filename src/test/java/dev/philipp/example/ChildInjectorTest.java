@@ -0,0 +1,94 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+
+public class ChildInjectorTest {
+
+	@Test
+	public void testChildFallsBackToParent() {
+		Injector parent = new Injector();
+		parent.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		parent.forClass(Service.class).provideInstanceOf(Service.class);
+		Injector child = parent.createChild();
+		assertSame(parent, child.getParent());
+		assertEquals(BigDecimal.TEN, child.inject(BigDecimal.class));
+		assertSame(parent.inject(Service.class), child.inject(Service.class));
+	}
+	
+	@Test
+	public void testChildBindingsAreLocal() {
+		Injector parent = new Injector();
+		parent.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		parent.forClass(Service.class).provideInstanceOf(Service.class);
+		Injector child = parent.createChild();
+		child.forClass(BigDecimal.class).provideValue(BigDecimal.ONE);
+		child.forClass(RequestData.class).provideInstanceOf(RequestData.class);
+		child.provide(Handler.class);
+		Handler handler = child.inject(Handler.class);
+		assertEquals(BigDecimal.ONE, handler.number);
+		assertSame(child.inject(RequestData.class), handler.data);
+		assertSame(parent.inject(Service.class), handler.service);
+		assertEquals(BigDecimal.TEN, parent.inject(BigDecimal.class));
+		assertNull(parent.injectOptional(RequestData.class));
+		
+		Injector otherChild = parent.createChild();
+		otherChild.forClass(RequestData.class).provideInstanceOf(RequestData.class);
+		assertNotSame(child.inject(RequestData.class), otherChild.inject(RequestData.class));
+	}
+	
+	@Test
+	public void testChildInjectsItself() {
+		Injector parent = new Injector();
+		Injector child = parent.createChild();
+		assertSame(child, child.inject(Injector.class));
+		assertSame(parent, parent.inject(Injector.class));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testClosedChild() {
+		Injector parent = new Injector();
+		parent.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		try (Injector child = parent.createChild()) {
+			child.forClass(RequestData.class).provideInstanceOf(RequestData.class);
+			child.inject(RequestData.class);
+			child.close();
+			assertEquals(BigDecimal.TEN, parent.inject(BigDecimal.class));
+			child.inject(BigDecimal.class);
+		}
+	}
+	
+	@Test
+	public void testChildOfFrozenParent() {
+		Injector parent = new Injector();
+		parent.forClass(Service.class).provideInstanceOf(Service.class);
+		parent.freeze();
+		Injector child = parent.createChild();
+		child.provide(Handler.class);
+		child.forClass(BigDecimal.class).provideValue(BigDecimal.ONE);
+		child.forClass(RequestData.class).provideInstanceOf(RequestData.class);
+		child.validate();
+		assertSame(parent.inject(Service.class), child.inject(Handler.class).service);
+	}
+	
+	public static class Service {
+	}
+	
+	public static class RequestData {
+	}
+	
+	public static class Handler {
+		@Inject Service service;
+		@Inject RequestData data;
+		@Inject BigDecimal number;
+	}
+}
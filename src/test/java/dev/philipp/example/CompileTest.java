@@ -0,0 +1,181 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.philipp.depen.CircularDependencyException;
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionToken;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.PostConstruct;
+import dev.philipp.depen.Provider;
+
+public class CompileTest {
+
+	@Test
+	public void testCompiledGraph() {
+		Injector injector = this.createInjector();
+		List<InjectionToken<?>> resolved = new ArrayList<>();
+		injector.setListener((token, cached, nanos) -> resolved.add(token));
+		Service before = injector.inject(Service.class);
+		assertTrue(resolved.size() > 1);
+
+		injector.compile();
+		resolved.clear();
+		Service service = injector.inject(Service.class);
+		//the prototypes are constructed inline, only the root is reported
+		assertEquals(1, resolved.size());
+		assertNotSame(before, service);
+		assertNotSame(service.handler, injector.inject(Service.class).handler);
+		assertSame(before.handler.config, service.handler.config);
+		assertSame(injector.inject(Config.class), service.handler.config);
+		assertEquals("name", service.handler.name);
+		assertSame(injector, service.injector);
+		assertSame(before.handler.config, service.handler.repository.config);
+		assertNotSame(service.handler.repository, service.repository);
+		assertTrue(service.started);
+	}
+
+	@Test
+	public void testNotCompiledGraphs() {
+		Injector injector = this.createInjector();
+		injector.forClass(Counter.class).provideFactory(i -> new Counter(i.inject(Handler.class)));
+		injector.provide(Counting.class);
+		injector.provide(Lookup.class);
+		injector.compile();
+
+		//deferred fields are resolved by the resolution context of the instance, which stays interpreted
+		Lookup lookup = injector.inject(Lookup.class);
+		assertSame(lookup, lookup.self.get());
+		assertNotSame(injector, lookup.injector);
+
+		//the factory is called on every injection
+		Counting counting = injector.inject(Counting.class);
+		assertNotSame(counting.counter, injector.inject(Counting.class).counter);
+		assertSame(injector.inject(Config.class), counting.counter.handler.config);
+	}
+
+	@Test(expected = CircularDependencyException.class)
+	public void testCircleThroughFactory() {
+		Injector injector = new Injector();
+		injector.provide(Looping.class);
+		injector.forClass(Counter.class).provideFactory(i -> {
+			i.inject(Looping.class);
+			return null;
+		});
+		injector.compile();
+		injector.inject(Looping.class);
+	}
+
+	@Test
+	public void testChildResolvesParentBindings() {
+		Injector injector = this.createInjector();
+		Injector child = injector.createChild();
+		child.provide(Service.class);
+		child.compile();
+		Service service = child.inject(Service.class);
+		assertSame(child, service.injector);
+		assertSame(injector.inject(Config.class), service.handler.config);
+	}
+
+	@Test
+	public void testChildSeesLaterParentBindings() {
+		Injector injector = this.createInjector();
+		Injector child = injector.createChild();
+		child.provide(Service.class);
+		child.compile();
+		Config config = injector.inject(Config.class);
+		assertSame(config, child.inject(Service.class).handler.config);
+
+		//the parent is not frozen, so its bindings may still change after the child was compiled
+		injector.forClass(String.class).provideValue("renamed");
+		injector.forClass(Config.class).provideInstanceOf(Config.class);
+		Service service = child.inject(Service.class);
+		assertEquals("renamed", service.handler.name);
+		assertNotSame(config, service.handler.config);
+		assertSame(injector.inject(Config.class), service.handler.config);
+	}
+
+	private Injector createInjector() {
+		Injector injector = new Injector();
+		injector.forClass(Config.class).provideInstanceOf(Config.class);
+		injector.forClass(String.class).provideValue("name");
+		injector.provide(Repository.class);
+		injector.provide(Handler.class);
+		injector.provide(Service.class);
+		return injector;
+	}
+
+	public static class Config {
+	}
+
+	public static class Repository {
+		final Config config;
+
+		public Repository(Config config) {
+			this.config = config;
+		}
+	}
+
+	public static class Handler {
+		final Config config;
+		final Repository repository;
+		final String name;
+
+		public Handler(Config config, Repository repository, String name) {
+			this.config = config;
+			this.repository = repository;
+			this.name = name;
+		}
+	}
+
+	public static class Service {
+		final Handler handler;
+		final Injector injector;
+		@Inject Repository repository;
+		boolean started;
+
+		public Service(Handler handler, Injector injector) {
+			this.handler = handler;
+			this.injector = injector;
+		}
+
+		@PostConstruct
+		void start() {
+			this.started = this.repository != null;
+		}
+	}
+
+	public static class Lookup {
+		@Inject Provider<Lookup> self;
+		@Inject Injector injector;
+	}
+
+	public static class Counter {
+		final Handler handler;
+
+		public Counter(Handler handler) {
+			this.handler = handler;
+		}
+	}
+
+	public static class Counting {
+		final Counter counter;
+
+		public Counting(Counter counter) {
+			this.counter = counter;
+		}
+	}
+
+	public static class Looping {
+		public Looping(Counter counter) {
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionToken;
+import dev.philipp.depen.Injector;
+
+public class ConcurrencyTest {
+
+	private static final int THREADS = 16;
+	
+	private static final int ROUNDS = 200;
+	
+	private ExecutorService executor;
+	
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(THREADS);
+	}
+	
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+	
+	@Test
+	public void testSingletonIsCreatedOnce() throws Exception {
+		for (int round = 0; round < ROUNDS; round++) {
+			SlowSingleton.created.set(0);
+			Injector injector = new Injector();
+			injector.forClass(SlowSingleton.class).provideInstanceOf(SlowSingleton.class);
+			List<SlowSingleton> results = this.runConcurrently(() -> injector.inject(SlowSingleton.class));
+			assertEquals(1, SlowSingleton.created.get());
+			for (SlowSingleton result : results) {
+				assertSame(results.get(0), result);
+			}
+		}
+	}
+	
+	@Test
+	public void testDependentSingletonsAreCreatedOnce() throws Exception {
+		for (int round = 0; round < ROUNDS; round++) {
+			SlowSingleton.created.set(0);
+			DependentSingleton.created.set(0);
+			Injector injector = new Injector();
+			injector.forClass(SlowSingleton.class).provideInstanceOf(SlowSingleton.class);
+			injector.forClass(DependentSingleton.class).provideInstanceOf(DependentSingleton.class);
+			AtomicInteger counter = new AtomicInteger();
+			List<Object> results = this.runConcurrently(() -> counter.getAndIncrement() % 2 == 0
+					? injector.inject(SlowSingleton.class)
+					: injector.inject(DependentSingleton.class).singleton);
+			assertEquals(1, SlowSingleton.created.get());
+			assertEquals(1, DependentSingleton.created.get());
+			for (Object result : results) {
+				assertSame(results.get(0), result);
+			}
+		}
+	}
+	
+	@Test
+	public void testProvideWhileInjecting() throws Exception {
+		Injector injector = new Injector();
+		injector.forClass(SlowSingleton.class).provideInstanceOf(SlowSingleton.class);
+		AtomicInteger counter = new AtomicInteger();
+		List<Object> results = this.runConcurrently(() -> {
+			int number = counter.getAndIncrement();
+			for (int i = 0; i < 1000; i++) {
+				injector.forToken(InjectionToken.create(Integer.class, number + "-" + i)).provideValue(i);
+			}
+			return injector.inject(SlowSingleton.class);
+		});
+		for (Object result : results) {
+			assertNotNull(result);
+			assertSame(results.get(0), result);
+		}
+	}
+	
+	private <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(this.executor.submit(() -> {
+				start.await();
+				return task.call();
+			}));
+		}
+		start.countDown();
+		List<T> results = new ArrayList<>();
+		for (Future<T> future : futures) {
+			results.add(future.get(10, TimeUnit.SECONDS));
+		}
+		return results;
+	}
+	
+	public static class SlowSingleton {
+		static final AtomicInteger created = new AtomicInteger();
+		
+		public SlowSingleton() {
+			created.incrementAndGet();
+			Thread.yield();
+		}
+	}
+	
+	public static class DependentSingleton {
+		static final AtomicInteger created = new AtomicInteger();
+		
+		@Inject SlowSingleton singleton;
+		
+		public DependentSingleton() {
+			created.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionException;
+import dev.philipp.depen.Injector;
+
+public class ConstructorChoiceTest {
+
+	@Test
+	public void testMarkedConstructorWins() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		injector.provide(Marked.class);
+		Marked marked = injector.inject(Marked.class);
+		assertEquals(BigDecimal.TEN, marked.number);
+		assertSame(injector.inject(Service.class), marked.service);
+	}
+
+	@Test
+	public void testRecord() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.ONE);
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		injector.provide(Settings.class);
+		Settings settings = injector.inject(Settings.class);
+		assertEquals(BigDecimal.ONE, settings.number());
+		assertSame(injector.inject(Service.class), settings.service());
+		assertNull(settings.name());
+	}
+
+	@Test
+	public void testNonPublicConstructor() {
+		Injector injector = new Injector();
+		injector.provide(Service.class);
+		injector.provide(Hidden.class);
+		injector.provide(Restricted.class);
+		assertNotNull(injector.inject(Hidden.class).service);
+		assertNotNull(injector.inject(Restricted.class).service);
+	}
+
+	@Test(expected = InjectionException.class)
+	public void testTwoMarkedConstructors() {
+		Injector injector = new Injector();
+		injector.provide(Service.class);
+		injector.provide(Ambiguous.class);
+		injector.inject(Ambiguous.class);
+	}
+
+	public static class Service {
+	}
+
+	public static class Marked {
+
+		final BigDecimal number;
+
+		final Service service;
+
+		public Marked() {
+			this(null, null);
+		}
+
+		@Inject
+		public Marked(BigDecimal number, Service service) {
+			this.number = number;
+			this.service = service;
+		}
+	}
+
+	public record Settings(BigDecimal number, Service service, @Inject(optional = true) String name) {
+
+		public Settings(BigDecimal number) {
+			this(number, null, null);
+		}
+	}
+
+	public static class Hidden {
+
+		final Service service;
+
+		Hidden(Service service) {
+			this.service = service;
+		}
+	}
+
+	public static class Restricted {
+
+		final Service service;
+
+		public Restricted() {
+			this(null);
+		}
+
+		@Inject
+		private Restricted(Service service) {
+			this.service = service;
+		}
+	}
+
+	public static class Ambiguous {
+
+		@Inject
+		public Ambiguous() {
+		}
+
+		@Inject
+		public Ambiguous(Service service) {
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import dev.philipp.depen.CircularDependencyException;
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.Provider;
+import dev.philipp.depen.ValidationException;
+
+public class CycleDetectionTest {
+
+	@Test
+	public void testDisableAfterValidation() {
+		Injector injector = new Injector();
+		injector.provide(Service.class);
+		injector.provide(Handler.class);
+		injector.disableCycleDetection();
+		assertFalse(injector.isCycleDetectionEnabled());
+		assertTrue(injector.isFrozen());
+		assertNotNull(injector.inject(Handler.class).service);
+	}
+	
+	@Test
+	public void testDisableFailsForCircle() {
+		Injector injector = new Injector();
+		injector.provide(A.class);
+		injector.provide(B.class);
+		try {
+			injector.disableCycleDetection();
+		} catch (ValidationException e) {
+			assertTrue(injector.isCycleDetectionEnabled());
+			return;
+		}
+		throw new AssertionError("circle not reported");
+	}
+	
+	@Test(expected = CircularDependencyException.class)
+	public void testCircleThroughFactory() {
+		Injector injector = new Injector();
+		injector.provide(A.class);
+		injector.forClass(B.class).provideFactory(i -> new B(i.inject(A.class)));
+		injector.inject(A.class);
+	}
+	
+	@Test
+	public void testProviderCalledInConstructor() {
+		Injector injector = new Injector();
+		injector.forClass(Eager.class).provideInstanceOf(Eager.class);
+		injector.forClass(Other.class).provideInstanceOf(Other.class);
+		try {
+			injector.inject(Eager.class);
+		} catch (RuntimeException e) {
+			//thrown inside the constructor, so it arrives wrapped
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof CircularDependencyException) {
+					return;
+				}
+			}
+			throw e;
+		}
+		throw new AssertionError("circle not detected");
+	}
+	
+	@Test
+	public void testInitializeInConstructor() {
+		Injector injector = new Injector();
+		injector.provide(Service.class);
+		injector.forClass(Self.class).provideInstanceOf(Self.class);
+		assertNotNull(injector.inject(Self.class).service);
+	}
+	
+	public static class Service {
+	}
+	
+	public static class Self {
+		@Inject Service service;
+		
+		public Self(Injector injector) {
+			injector.initialize(this);
+		}
+	}
+	
+	public static class Handler {
+		@Inject Service service;
+	}
+	
+	public static class A {
+		public A(B b) {
+		}
+	}
+	
+	public static class B {
+		public B(A a) {
+		}
+	}
+	
+	public static class Eager {
+		public Eager(Provider<Other> other) {
+			other.get();
+		}
+	}
+	
+	public static class Other {
+		public Other(Eager eager) {
+		}
+	}
+}
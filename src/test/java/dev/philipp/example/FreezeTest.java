@@ -0,0 +1,76 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionException;
+import dev.philipp.depen.InjectionToken;
+import dev.philipp.depen.Injector;
+
+public class FreezeTest {
+
+	@Test
+	public void testInjectAfterFreeze() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		injector.provide(App.class);
+		assertFalse(injector.isFrozen());
+		injector.freeze();
+		assertTrue(injector.isFrozen());
+		assertEquals(BigDecimal.TEN, injector.inject(BigDecimal.class));
+		assertSame(injector.inject(Service.class), injector.inject(Service.class));
+		App app = injector.inject(App.class);
+		assertNotSame(app, injector.inject(App.class));
+		assertSame(injector.inject(Service.class), app.service);
+		assertSame(injector, injector.inject(Injector.class));
+	}
+	
+	@Test
+	public void testTokensAfterFreeze() {
+		Injector injector = new Injector();
+		InjectionToken<BigDecimal> token = InjectionToken.create(BigDecimal.class, "TOKEN");
+		injector.forToken(token).provideValue(BigDecimal.ONE);
+		injector.freeze();
+		assertEquals(BigDecimal.ONE, injector.inject(token));
+		assertNull(injector.injectOptional(BigDecimal.class));
+	}
+	
+	@Test(expected = InjectionException.class)
+	public void testMissingAfterFreeze() {
+		new Injector().freeze().inject(BigDecimal.class);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testProvideAfterFreeze() {
+		Injector injector = new Injector().freeze();
+		injector.provide(Service.class);
+	}
+	
+	@Test
+	public void testFactoryCanUseFrozenInjector() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		injector.forClass(StringBuilder.class).provideFactory(i -> new StringBuilder(i.inject(BigDecimal.class).toString()));
+		injector.freeze();
+		assertNotNull(injector.inject(StringBuilder.class));
+		assertEquals("10", injector.inject(StringBuilder.class).toString());
+	}
+	
+	public static class Service {
+	}
+	
+	public static class App {
+		@Inject Service service;
+	}
+}
@@ -0,0 +1,134 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionException;
+import dev.philipp.depen.InjectionToken;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.Provider;
+import dev.philipp.depen.TypeLiteral;
+import dev.philipp.depen.ValidationException;
+
+public class GenericKeyTest {
+
+	@Test
+	public void testTypesDoNotCollide() {
+		Injector injector = this.createInjector();
+		Checkout checkout = injector.inject(Checkout.class);
+		assertTrue(checkout.users instanceof UserCache);
+		assertTrue(checkout.orders instanceof OrderCache);
+		assertSame(checkout.orders, checkout.lazyOrders.get());
+		assertSame(checkout.users, injector.inject(new TypeLiteral<Cache<User>>() {}));
+		assertNull(checkout.items);
+	}
+
+	@Test
+	public void testRawClassFallback() {
+		Injector injector = this.createInjector();
+		injector.forClass(Cache.class).provideInstanceOf(PlainCache.class);
+		Checkout checkout = injector.inject(Checkout.class);
+		assertTrue(checkout.items instanceof PlainCache);
+		try {
+			injector.inject(new TypeLiteral<Cache<String>>() {});
+			fail("a generic token does not fall back");
+		} catch (InjectionException e) {
+			assertTrue(e.getMessage().contains("Cache<java.lang.String>"));
+		}
+	}
+
+	@Test
+	public void testValidation() {
+		Injector injector = this.createInjector();
+		injector.provide(Inventory.class);
+		try {
+			injector.validate();
+			fail("items are not provided");
+		} catch (ValidationException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("Cache<" + Item.class.getName() + ">"));
+		}
+		injector.forType(new TypeLiteral<Cache<Item>>() {}).provideInstanceOf(ItemCache.class);
+		injector.compile();
+		Inventory inventory = injector.inject(Inventory.class);
+		assertTrue(inventory.items instanceof ItemCache);
+		assertTrue(inventory.checkout.orders instanceof OrderCache);
+		assertTrue(inventory.checkout.users instanceof UserCache);
+	}
+
+	@Test
+	public void testTokensAreInterned() {
+		InjectionToken<Map<String, List<Integer>>> token = InjectionToken.of(new TypeLiteral<Map<String, List<Integer>>>() {});
+		assertSame(token, InjectionToken.of(new TypeLiteral<Map<String, List<Integer>>>() {}));
+		assertNotEquals(token, InjectionToken.of(new TypeLiteral<Map<String, List<Long>>>() {}));
+		assertEquals("Type java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>", token.toString());
+	}
+
+	@Test(expected = InjectionException.class)
+	public void testWildcardIsNoKey() {
+		InjectionToken.of(new TypeLiteral<Cache<? extends User>>() {});
+	}
+
+	private Injector createInjector() {
+		Injector injector = new Injector();
+		injector.forType(new TypeLiteral<Cache<User>>() {}).provideInstanceOf(UserCache.class);
+		injector.forType(new TypeLiteral<Cache<Order>>() {}).provideInstanceOf(OrderCache.class);
+		injector.provide(Checkout.class);
+		return injector;
+	}
+
+	public static class User {
+	}
+
+	public static class Order {
+	}
+
+	public static class Item {
+	}
+
+	public interface Cache<T> {
+	}
+
+	public static class UserCache implements Cache<User> {
+	}
+
+	public static class OrderCache implements Cache<Order> {
+	}
+
+	public static class ItemCache implements Cache<Item> {
+	}
+
+	@SuppressWarnings("rawtypes")
+	public static class PlainCache implements Cache {
+	}
+
+	public static class Checkout {
+		final Cache<User> users;
+		@Inject Cache<Order> orders;
+		@Inject Provider<Cache<Order>> lazyOrders;
+		@Inject(optional = true) Cache<Item> items;
+
+		public Checkout(Cache<User> users) {
+			this.users = users;
+		}
+	}
+
+	public static class Inventory {
+		final Cache<Item> items;
+		final Checkout checkout;
+
+		public Inventory(Cache<Item> items, Checkout checkout) {
+			this.items = items;
+			this.checkout = checkout;
+		}
+	}
+}
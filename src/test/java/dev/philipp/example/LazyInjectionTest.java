@@ -0,0 +1,188 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.Lazy;
+import dev.philipp.depen.Provider;
+import dev.philipp.depen.ValidationException;
+
+public class LazyInjectionTest {
+
+	@Test
+	public void testProviderResolvesOnEveryCall() {
+		Injector injector = new Injector();
+		injector.provide(Expensive.class);
+		injector.provide(Handler.class);
+		Expensive.created = 0;
+		Handler handler = injector.inject(Handler.class);
+		assertEquals(0, Expensive.created);
+		assertNotSame(handler.provider.get(), handler.provider.get());
+		assertNotSame(handler.supplier.get(), handler.supplier.get());
+		assertEquals(4, Expensive.created);
+	}
+	
+	@Test
+	public void testLazyProxyOfPackagePrivateInterface() {
+		Injector injector = new Injector();
+		injector.forClass(Counter.class).provideClass(FailingCounter.class);
+		injector.provide(CounterUser.class);
+		CounterUser user = injector.inject(CounterUser.class);
+		try {
+			user.counter.next();
+			fail();
+		} catch (IllegalStateException e) {
+			//the exception of the target itself
+			assertEquals("exhausted", e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testLazyResolvesOnce() {
+		Injector injector = new Injector();
+		injector.provide(Expensive.class);
+		injector.provide(Handler.class);
+		Handler handler = injector.inject(Handler.class);
+		assertFalse(handler.lazy.isResolved());
+		assertSame(handler.lazy.get(), handler.lazy.get());
+		assertTrue(handler.lazy.isResolved());
+	}
+	
+	@Test
+	public void testLazyProxy() {
+		Injector injector = new Injector();
+		injector.forClass(Greeter.class).provideClass(EnglishGreeter.class);
+		injector.provide(Handler.class);
+		EnglishGreeter.created = 0;
+		Handler handler = injector.inject(Handler.class);
+		assertEquals(0, EnglishGreeter.created);
+		assertEquals("Hello Depen", handler.greeter.greet("Depen"));
+		assertEquals("Hello again", handler.greeter.greet("again"));
+		assertEquals(1, EnglishGreeter.created);
+	}
+	
+	@Test
+	public void testOptionalProvider() {
+		Injector injector = new Injector();
+		injector.provide(OptionalUser.class);
+		assertNull(injector.inject(OptionalUser.class).provider.get());
+	}
+	
+	@Test
+	public void testProviderBreaksConstructorCircle() {
+		Injector injector = new Injector();
+		injector.forClass(First.class).provideInstanceOf(First.class);
+		injector.forClass(Second.class).provideInstanceOf(Second.class);
+		injector.validate();
+		First first = injector.inject(First.class);
+		assertSame(first, first.second.get().first);
+		assertSame(injector.inject(Second.class), first.second.get());
+	}
+	
+	@Test(expected = ValidationException.class)
+	public void testMissingDeferredBindingIsReported() {
+		Injector injector = new Injector();
+		injector.provide(Handler.class);
+		injector.validate();
+	}
+	
+	@Test
+	public void testRawSupplierIsBinding() {
+		Injector injector = new Injector();
+		Supplier<String> supplier = () -> "value";
+		injector.forClass(Supplier.class).provideValue(supplier);
+		injector.provide(RawUser.class);
+		injector.validate();
+		RawUser user = injector.inject(RawUser.class);
+		assertSame(supplier, user.supplier);
+		assertSame(supplier, user.field);
+	}
+	
+	public static class Expensive {
+		static int created;
+		
+		public Expensive() {
+			created++;
+		}
+	}
+	
+	interface Counter {
+		int next();
+	}
+	
+	static class FailingCounter implements Counter {
+		@Override
+		public int next() {
+			throw new IllegalStateException("exhausted");
+		}
+	}
+	
+	public static class CounterUser {
+		@Inject(lazy = true) Counter counter;
+	}
+	
+	public interface Greeter {
+		String greet(String name);
+	}
+	
+	public static class EnglishGreeter implements Greeter {
+		static int created;
+		
+		public EnglishGreeter() {
+			created++;
+		}
+		
+		@Override
+		public String greet(String name) {
+			return "Hello " + name;
+		}
+	}
+	
+	public static class Handler {
+		@Inject Provider<Expensive> provider;
+		@Inject Supplier<Expensive> supplier;
+		@Inject Lazy<Expensive> lazy;
+		@Inject(lazy = true) Greeter greeter;
+	}
+	
+	public static class OptionalUser {
+		@Inject(optional = true) Provider<Expensive> provider;
+	}
+	
+	@SuppressWarnings("rawtypes")
+	public static class RawUser {
+		final Supplier supplier;
+		@Inject Supplier field;
+		
+		public RawUser(Supplier supplier) {
+			this.supplier = supplier;
+		}
+	}
+	
+	public static class First {
+		final Provider<Second> second;
+		
+		public First(Provider<Second> second) {
+			this.second = second;
+		}
+	}
+	
+	public static class Second {
+		final First first;
+		
+		public Second(First first) {
+			this.first = first;
+		}
+	}
+}
@@ -0,0 +1,342 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import dev.philipp.depen.CloseException;
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.PostConstruct;
+
+public class LifecycleTest {
+
+	static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	public void testPostConstruct() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		injector.forClass(Pool.class).provideInstanceOf(Pool.class);
+		injector.provide(Client.class);
+		Client client = injector.inject(Client.class);
+		assertTrue(client.started);
+		assertEquals(Arrays.asList("start pool", "base client", "start client"), EVENTS);
+
+		Client manual = new Client();
+		injector.initialize(manual);
+		assertTrue(manual.started);
+	}
+
+	@Test
+	public void testCloseInReverseOrder() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		injector.forClass(Pool.class).provideInstanceOf(Pool.class);
+		injector.forClass(Repository.class).provideInstanceOf(Repository.class);
+		injector.forClass(Cache.class).provideInstanceOf(Cache.class);
+		injector.provide(Client.class);
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		injector.inject(Service.class);
+		EVENTS.clear();
+		injector.close();
+		//the service is closed before the repository and the pool, the pool after everything using it
+		assertEquals(3, EVENTS.size());
+		assertTrue(EVENTS.indexOf("close service") < EVENTS.indexOf("close repository"));
+		assertEquals("close pool", EVENTS.get(2));
+		assertFalse(EVENTS.contains("close cache"));
+		injector.close();
+		assertEquals(3, EVENTS.size());
+	}
+
+	@Test
+	public void testIndependentSingletonsCloseInParallel() throws InterruptedException {
+		Injector injector = new Injector();
+		injector.forClass(Left.class).provideInstanceOf(Left.class);
+		injector.forClass(Right.class).provideInstanceOf(Right.class);
+		Left left = injector.inject(Left.class);
+		Right right = injector.inject(Right.class);
+		//each one waits for the other one to start closing
+		left.other = right.closing;
+		right.other = left.closing;
+		injector.close();
+		assertTrue(left.closed && right.closed);
+	}
+
+	@Test
+	public void testTimeoutIsReported() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		injector.setCloseTimeout(Duration.ofMillis(100));
+		injector.forClass(Pool.class).provideInstanceOf(Pool.class);
+		injector.forClass(Hanging.class).provideInstanceOf(Hanging.class);
+		injector.inject(Hanging.class);
+		EVENTS.clear();
+		try {
+			injector.close();
+			fail();
+		} catch (CloseException e) {
+			assertEquals(1, e.getProblems().size());
+			assertTrue(e.getProblems().get(0).startsWith("Hanging not closed within 100 ms"));
+			assertEquals(1, e.getSuppressed().length);
+		}
+		assertEquals(Arrays.asList("close pool"), EVENTS);
+	}
+
+	@Test
+	public void testFailureIsReported() {
+		Injector injector = new Injector();
+		injector.forClass(Failing.class).provideInstanceOf(Failing.class);
+		injector.inject(Failing.class);
+		try {
+			injector.close();
+			fail();
+		} catch (CloseException e) {
+			assertTrue(e.getProblems().get(0).startsWith("Failing failed to close"));
+			assertEquals("broken", e.getSuppressed()[0].getMessage());
+		}
+	}
+
+	@Test
+	public void testMultibindingElementsAreClosed() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		injector.forClass(Pool.class).provideInstanceOf(Pool.class);
+		injector.forSet(Plugin.class).addInstanceOf(PoolPlugin.class).addValue(new ValuePlugin());
+		injector.forMap(String.class, Plugin.class).putInstanceOf("named", NamedPlugin.class);
+		injector.forClass(Host.class).provideInstanceOf(Host.class);
+		injector.inject(Host.class);
+		EVENTS.clear();
+		injector.close();
+		assertEquals(4, EVENTS.size());
+		assertEquals("close host", EVENTS.get(0));
+		assertTrue(EVENTS.containsAll(Arrays.asList("close pool plugin", "close named plugin")));
+		assertEquals("close pool", EVENTS.get(3));
+	}
+
+	@Test
+	public void testAsyncSingletonIsClosed() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		injector.forClass(Pool.class).provideAsync(i -> CompletableFuture.completedFuture(new Pool()));
+		injector.forClass(Cache.class).provideAsync(i -> new CompletableFuture<>());
+		injector.injectAsync(Pool.class).join();
+		injector.injectAsync(Cache.class);
+		injector.close();
+		//the cache is still being created, so it is not closed
+		assertEquals(Arrays.asList("close pool"), EVENTS);
+	}
+
+	@Test
+	public void testSingleSingletonTimesOut() {
+		Injector injector = new Injector();
+		injector.setCloseTimeout(Duration.ofMillis(100));
+		injector.provide(Pool.class);
+		injector.forClass(Hanging.class).provideInstanceOf(Hanging.class);
+		injector.inject(Hanging.class);
+		try {
+			injector.close();
+			fail();
+		} catch (CloseException e) {
+			assertEquals(Arrays.asList("Hanging not closed within 100 ms"), e.getProblems());
+		}
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	public void testSingleSingletonIgnoringInterruptsTimesOut() {
+		Injector injector = new Injector();
+		injector.setCloseTimeout(Duration.ofMillis(100));
+		injector.forClass(Stubborn.class).provideInstanceOf(Stubborn.class);
+		Stubborn stubborn = injector.inject(Stubborn.class);
+		long start = System.nanoTime();
+		try {
+			injector.close();
+			fail();
+		} catch (CloseException e) {
+			assertEquals(Arrays.asList("Stubborn not closed within 100 ms"), e.getProblems());
+		} finally {
+			stubborn.release = true;
+		}
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+
+	public static class Pool implements AutoCloseable {
+
+		@PostConstruct
+		void start() {
+			EVENTS.add("start pool");
+		}
+
+		@Override
+		public void close() {
+			EVENTS.add("close pool");
+		}
+	}
+
+	public static class BaseClient {
+
+		@PostConstruct
+		private void base() {
+			EVENTS.add("base client");
+		}
+	}
+
+	public static class Client extends BaseClient {
+
+		@Inject Pool pool;
+
+		boolean started;
+
+		@PostConstruct
+		public void start() {
+			this.started = this.pool != null;
+			EVENTS.add("start client");
+		}
+	}
+
+	public static class Repository implements AutoCloseable {
+
+		@Inject Pool pool;
+
+		@Override
+		public void close() {
+			EVENTS.add("close repository");
+		}
+	}
+
+	public static class Cache implements AutoCloseable {
+
+		@Override
+		public void close() {
+			EVENTS.add("close cache");
+		}
+	}
+
+	public static class Service implements AutoCloseable {
+
+		final Repository repository;
+
+		final Client client;
+
+		public Service(Repository repository, Client client) {
+			this.repository = repository;
+			this.client = client;
+		}
+
+		@Override
+		public void close() {
+			EVENTS.add("close service");
+		}
+	}
+
+	public static class Left implements AutoCloseable {
+
+		final CountDownLatch closing = new CountDownLatch(1);
+
+		volatile CountDownLatch other;
+
+		volatile boolean closed;
+
+		@Override
+		public void close() throws InterruptedException {
+			this.closing.countDown();
+			this.closed = this.other.await(5, TimeUnit.SECONDS);
+		}
+	}
+
+	public static class Right extends Left {
+	}
+
+	public interface Plugin {
+	}
+
+	public static class PoolPlugin implements Plugin, AutoCloseable {
+
+		@Inject Pool pool;
+
+		@Override
+		public void close() {
+			EVENTS.add("close pool plugin");
+		}
+	}
+
+	public static class NamedPlugin implements Plugin, AutoCloseable {
+
+		@Override
+		public void close() {
+			EVENTS.add("close named plugin");
+		}
+	}
+
+	public static class ValuePlugin implements Plugin, AutoCloseable {
+
+		@Override
+		public void close() {
+			EVENTS.add("close value plugin");
+		}
+	}
+
+	public static class Host implements AutoCloseable {
+
+		final List<Plugin> plugins;
+
+		final Map<String, Plugin> named;
+
+		public Host(List<Plugin> plugins, Map<String, Plugin> named) {
+			this.plugins = plugins;
+			this.named = named;
+		}
+
+		@Override
+		public void close() {
+			EVENTS.add("close host");
+		}
+	}
+
+	public static class Hanging implements AutoCloseable {
+
+		@Inject Pool pool;
+
+		@Override
+		public void close() throws InterruptedException {
+			Thread.sleep(10_000);
+		}
+	}
+
+	public static class Stubborn implements AutoCloseable {
+
+		volatile boolean release;
+
+		@Override
+		public void close() {
+			long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+			//busy waits without looking at the interrupt flag
+			while (!this.release && System.nanoTime() < end) {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
+	public static class Failing implements AutoCloseable {
+
+		@Override
+		public void close() {
+			throw new IllegalStateException("broken");
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionToken;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.JfrInjectionListener;
+import dev.philipp.depen.ResolutionMetrics;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class MetricsTest {
+
+	@Test
+	public void testMetrics() {
+		ResolutionMetrics metrics = new ResolutionMetrics();
+		Injector injector = new Injector();
+		injector.setListener(metrics);
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		injector.provide(Handler.class);
+		for (int i = 0; i < 3; i++) {
+			injector.inject(Handler.class);
+		}
+		Map<InjectionToken<?>, ResolutionMetrics.Snapshot> snapshot = metrics.snapshot();
+		assertEquals(2, snapshot.size());
+		
+		ResolutionMetrics.Snapshot handler = find(snapshot, Handler.class);
+		assertEquals(3, handler.getCount());
+		assertEquals(3, handler.getMisses());
+		assertEquals(0, handler.getHits());
+		long histogramCount = 0;
+		for (long bucket : handler.getHistogram()) {
+			histogramCount += bucket;
+		}
+		assertEquals(3, histogramCount);
+		assertTrue(handler.getMaxNanos() <= handler.getPercentileNanos(100));
+		
+		ResolutionMetrics.Snapshot service = find(snapshot, Service.class);
+		assertEquals(3, service.getCount());
+		assertEquals(1, service.getMisses());
+		assertEquals(2, service.getHits());
+		assertTrue(service.getCreationNanos() <= service.getTotalNanos());
+		
+		metrics.reset();
+		assertTrue(metrics.snapshot().isEmpty());
+	}
+	
+	@Test
+	public void testListenerOnFrozenAndChildInjector() {
+		ResolutionMetrics metrics = new ResolutionMetrics();
+		Injector injector = new Injector();
+		injector.setListener(metrics);
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		injector.freeze();
+		injector.inject(Service.class);
+		Injector child = injector.createChild();
+		assertSame(metrics, child.getListener());
+		child.inject(Service.class);
+		assertEquals(2, find(metrics.snapshot(), Service.class).getCount());
+		
+		injector.setListener(null);
+		injector.inject(Service.class);
+		assertEquals(2, find(metrics.snapshot(), Service.class).getCount());
+		assertNull(injector.getListener());
+	}
+	
+	@Test
+	public void testJfrEvents() throws Exception {
+		Injector injector = new Injector();
+		injector.setListener(new JfrInjectionListener());
+		injector.forClass(Service.class).provideInstanceOf(Service.class);
+		Path file = Files.createTempFile("depen", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("dev.philipp.depen.Resolution");
+			recording.start();
+			injector.inject(Service.class);
+			injector.inject(Service.class);
+			recording.stop();
+			recording.dump(file);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			events.removeIf(event -> !event.getEventType().getName().equals("dev.philipp.depen.Resolution"));
+			assertEquals(2, events.size());
+			assertEquals(false, events.get(0).getBoolean("cached"));
+			assertEquals(true, events.get(1).getBoolean("cached"));
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	private static ResolutionMetrics.Snapshot find(Map<InjectionToken<?>, ResolutionMetrics.Snapshot> snapshot, Class<?> clazz) {
+		for (Map.Entry<InjectionToken<?>, ResolutionMetrics.Snapshot> entry : snapshot.entrySet()) {
+			if (entry.getKey().toString().equals("Class " + clazz.getName())) {
+				return entry.getValue();
+			}
+		}
+		throw new AssertionError(clazz + " not recorded");
+	}
+	
+	public static class Service {
+	}
+	
+	public static class Handler {
+		@Inject Service service;
+	}
+}
@@ -0,0 +1,167 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.ValidationException;
+
+public class MultibindingTest {
+
+	@Test
+	public void testSetBinding() {
+		Injector injector = new Injector();
+		injector.forSet(Handler.class)
+				.addInstanceOf(LoginHandler.class)
+				.addClass(LogoutHandler.class)
+				.addValue(new NamedHandler("value"))
+				.addFactory(i -> new NamedHandler("factory"));
+		injector.provide(Dispatcher.class);
+		List<Handler> handlers = injector.injectAll(Handler.class);
+		assertEquals(4, handlers.size());
+		assertTrue(handlers.get(0) instanceof LoginHandler);
+		assertTrue(handlers.get(1) instanceof LogoutHandler);
+		assertEquals(Arrays.asList("login", "logout", "value", "factory"), names(handlers));
+		
+		Dispatcher dispatcher = injector.inject(Dispatcher.class);
+		assertSame(handlers.get(0), dispatcher.handlers.get(0));
+		assertNotSame(handlers.get(1), dispatcher.handlers.get(1));
+	}
+	
+	@Test
+	public void testSharedElementsAreCached() {
+		Injector injector = new Injector();
+		injector.forSet(Handler.class)
+				.addInstanceOf(LoginHandler.class)
+				.addValue(new NamedHandler("value"));
+		List<Handler> handlers = injector.injectAll(Handler.class);
+		assertSame(handlers, injector.injectAll(Handler.class));
+		
+		injector.forSet(Handler.class).addInstanceOf(LogoutHandler.class);
+		List<Handler> more = injector.injectAll(Handler.class);
+		assertEquals(3, more.size());
+		assertSame(handlers.get(0), more.get(0));
+		
+		injector.forSet(Handler.class).addClass(LogoutHandler.class);
+		assertNotSame(injector.injectAll(Handler.class), injector.injectAll(Handler.class));
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSetIsImmutable() {
+		Injector injector = new Injector();
+		injector.forSet(Handler.class).addInstanceOf(LoginHandler.class);
+		injector.injectAll(Handler.class).clear();
+	}
+	
+	@Test
+	public void testMapBinding() {
+		Injector injector = new Injector();
+		injector.forMap(String.class, Handler.class)
+				.putInstanceOf("login", LoginHandler.class)
+				.putClass("logout", LogoutHandler.class);
+		injector.provide(Router.class);
+		Map<String, Handler> routes = injector.injectMap(String.class, Handler.class);
+		assertEquals(Arrays.asList("login", "logout"), Arrays.asList(routes.keySet().toArray()));
+		assertSame(routes.get("login"), injector.inject(Router.class).routes.get("login"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateKey() {
+		Injector injector = new Injector();
+		injector.forMap(String.class, Handler.class)
+				.putInstanceOf("login", LoginHandler.class)
+				.putInstanceOf("login", LogoutHandler.class);
+	}
+	
+	@Test
+	public void testMissingMultibinding() {
+		Injector injector = new Injector();
+		assertTrue(injector.injectAll(Handler.class).isEmpty());
+		assertTrue(injector.injectMap(String.class, Handler.class).isEmpty());
+		injector.provide(Dispatcher.class);
+		try {
+			injector.validate();
+		} catch (ValidationException e) {
+			return;
+		}
+		throw new AssertionError("missing set binding not reported");
+	}
+	
+	@Test
+	public void testPlainListBinding() {
+		Injector injector = new Injector();
+		injector.forClass(List.class).provideValue(Arrays.asList(new NamedHandler("plain")));
+		injector.provide(Dispatcher.class);
+		injector.validate();
+		assertEquals(Arrays.asList("plain"), names(injector.inject(Dispatcher.class).handlers));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testFrozen() {
+		Injector injector = new Injector();
+		injector.forSet(Handler.class).addInstanceOf(LoginHandler.class);
+		injector.freeze();
+		assertEquals(1, injector.injectAll(Handler.class).size());
+		injector.forSet(Handler.class).addInstanceOf(LogoutHandler.class);
+	}
+	
+	private static List<String> names(List<Handler> handlers) {
+		String[] names = new String[handlers.size()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = handlers.get(i).name();
+		}
+		return Arrays.asList(names);
+	}
+	
+	public interface Handler {
+		String name();
+	}
+	
+	public static class LoginHandler implements Handler {
+		@Override
+		public String name() {
+			return "login";
+		}
+	}
+	
+	public static class LogoutHandler implements Handler {
+		@Override
+		public String name() {
+			return "logout";
+		}
+	}
+	
+	public static class NamedHandler implements Handler {
+		private final String name;
+		
+		public NamedHandler(String name) {
+			this.name = name;
+		}
+		
+		@Override
+		public String name() {
+			return this.name;
+		}
+	}
+	
+	public static class Dispatcher {
+		@Inject List<Handler> handlers;
+	}
+	
+	public static class Router {
+		final Map<String, Handler> routes;
+		
+		public Router(Map<String, Handler> routes) {
+			this.routes = routes;
+		}
+	}
+}
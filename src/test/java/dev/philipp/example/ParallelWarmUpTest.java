@@ -0,0 +1,97 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+
+public class ParallelWarmUpTest {
+
+	private ExecutorService executor;
+	
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(4);
+		Slow.barrier = new CyclicBarrier(2);
+	}
+	
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+	
+	@Test
+	public void testIndependentSingletonsAreCreatedInParallel() {
+		Injector injector = new Injector();
+		injector.forClass(SlowA.class).provideInstanceOf(SlowA.class);
+		injector.forClass(SlowB.class).provideInstanceOf(SlowB.class);
+		injector.forClass(Dependent.class).provideInstanceOf(Dependent.class);
+		injector.provide(Prototype.class);
+		//SlowA and SlowB wait for each other, so this only finishes if both are created at the same time
+		injector.warmUp(this.executor);
+		Dependent dependent = injector.inject(Dependent.class);
+		assertSame(injector.inject(SlowA.class), dependent.prototype.a);
+		assertSame(injector.inject(SlowB.class), dependent.b);
+		assertEquals(2, dependent.createdBefore);
+	}
+	
+	@Test(expected = RuntimeException.class)
+	public void testFailureIsRethrown() {
+		Injector injector = new Injector();
+		injector.forClass(Failing.class).provideInstanceOf(Failing.class);
+		injector.warmUp(this.executor);
+	}
+	
+	static class Slow {
+		static CyclicBarrier barrier;
+		static volatile int created;
+		
+		Slow() {
+			try {
+				barrier.await(5, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new IllegalStateException("not created in parallel", e);
+			}
+			synchronized (Slow.class) {
+				created++;
+			}
+		}
+	}
+	
+	public static class SlowA extends Slow {
+	}
+	
+	public static class SlowB extends Slow {
+	}
+	
+	public static class Prototype {
+		@Inject SlowA a;
+	}
+	
+	public static class Dependent {
+		final int createdBefore;
+		@Inject SlowB b;
+		final Prototype prototype;
+		
+		public Dependent(Prototype prototype) {
+			this.prototype = prototype;
+			this.createdBefore = Slow.created;
+		}
+	}
+	
+	public static class Failing {
+		public Failing() {
+			throw new IllegalStateException();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import dev.philipp.depen.BindingGraph;
+import dev.philipp.depen.InjectionException;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.PoolStats;
+import dev.philipp.depen.Pooled;
+
+public class PoolTest {
+
+	@Test
+	public void testBorrowAndReturn() {
+		Injector injector = new Injector();
+		injector.forClass(Dictionary.class).provideInstanceOf(Dictionary.class);
+		injector.forClass(Parser.class).providePooled(Parser.class, 4, Parser::reset);
+
+		Parser first;
+		try (Pooled<Parser> parser = injector.borrow(Parser.class)) {
+			first = parser.get();
+			first.buffer.append("input");
+			assertSame(injector.inject(Dictionary.class), first.dictionary);
+		}
+		assertEquals(0, first.buffer.length());
+		try (Pooled<Parser> parser = injector.borrow(Parser.class)) {
+			assertSame(first, parser.get());
+			try (Pooled<Parser> second = injector.borrow(Parser.class)) {
+				assertNotSame(first, second.get());
+			}
+		}
+		PoolStats stats = injector.getPoolStats(Parser.class);
+		assertEquals(1, stats.getHits());
+		assertEquals(2, stats.getMisses());
+		assertEquals(3, stats.getReturns());
+		assertEquals(2, stats.getSize());
+		assertEquals(4, stats.getMaxSize());
+		assertNull(injector.getPoolStats(Dictionary.class));
+		assertEquals(BindingGraph.Scope.POOLED, injector.graph().getNode(Parser.class).getScope());
+	}
+
+	@Test
+	public void testHandleIsClosedOnce() {
+		Injector injector = new Injector();
+		injector.forClass(Dictionary.class).provideInstanceOf(Dictionary.class);
+		injector.forClass(Parser.class).providePooled(Parser.class, 4);
+		Pooled<Parser> parser = injector.borrow(Parser.class);
+		parser.close();
+		parser.close();
+		assertEquals(1, injector.getPoolStats(Parser.class).getReturns());
+		try {
+			parser.get();
+			fail("returned instances can not be used");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void testFullPoolAndFailedReset() {
+		Injector injector = new Injector();
+		injector.forClass(Dictionary.class).provideInstanceOf(Dictionary.class);
+		injector.forClass(Parser.class).providePooled(Parser.class, 2, parser -> {
+			if (parser.buffer.length() > 0) {
+				throw new IllegalStateException("broken");
+			}
+		});
+		List<Pooled<Parser>> parsers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			parsers.add(injector.borrow(Parser.class));
+		}
+		parsers.forEach(Pooled::close);
+		assertEquals(1, injector.getPoolStats(Parser.class).getDiscards());
+		assertEquals(2, injector.getPoolStats(Parser.class).getSize());
+
+		Pooled<Parser> broken = injector.borrow(Parser.class);
+		broken.get().buffer.append("half parsed");
+		try {
+			broken.close();
+			fail("the reset fails");
+		} catch (IllegalStateException e) {
+			//expected
+		}
+		assertEquals(2, injector.getPoolStats(Parser.class).getDiscards());
+		assertEquals(1, injector.getPoolStats(Parser.class).getSize());
+
+		//plain injections take from the pool, but do not return
+		long hits = injector.getPoolStats(Parser.class).getHits();
+		injector.inject(Parser.class);
+		assertEquals(hits + 1, injector.getPoolStats(Parser.class).getHits());
+		assertEquals(0, injector.getPoolStats(Parser.class).getSize());
+	}
+
+	@Test(expected = InjectionException.class)
+	public void testBorrowNotPooled() {
+		Injector injector = new Injector();
+		injector.forClass(Dictionary.class).provideInstanceOf(Dictionary.class);
+		injector.borrow(Dictionary.class);
+	}
+
+	@Test
+	public void testChildBorrowsFromParent() {
+		Injector injector = new Injector();
+		injector.forClass(Dictionary.class).provideInstanceOf(Dictionary.class);
+		injector.forClass(Parser.class).providePooled(Parser.class, 4);
+		Parser parser;
+		try (Pooled<Parser> pooled = injector.createChild().borrow(Parser.class)) {
+			parser = pooled.get();
+		}
+		try (Pooled<Parser> pooled = injector.borrow(Parser.class)) {
+			assertSame(parser, pooled.get());
+		}
+	}
+
+	@Test
+	public void testConcurrentBorrowing() throws Exception {
+		Injector injector = new Injector();
+		injector.forClass(Dictionary.class).provideInstanceOf(Dictionary.class);
+		injector.forClass(Parser.class).providePooled(Parser.class, 8, Parser::reset);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					try (Pooled<Parser> pooled = injector.borrow(Parser.class)) {
+						Parser parser = pooled.get();
+						assertFalse("borrowed twice", parser.inUse.getAndSet(true));
+						parser.buffer.append(i);
+						parser.inUse.set(false);
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		PoolStats stats = injector.getPoolStats(Parser.class);
+		assertEquals(80_000, stats.getHits() + stats.getMisses());
+		assertEquals(80_000, stats.getReturns());
+		assertEquals(stats.getMisses(), stats.getSize() + stats.getDiscards());
+	}
+
+	public static class Dictionary {
+	}
+
+	public static class Parser {
+		final Dictionary dictionary;
+		final StringBuilder buffer = new StringBuilder();
+		final AtomicBoolean inUse = new AtomicBoolean();
+
+		public Parser(Dictionary dictionary) {
+			this.dictionary = dictionary;
+		}
+
+		void reset() {
+			this.buffer.setLength(0);
+		}
+	}
+}
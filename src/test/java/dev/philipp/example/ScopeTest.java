@@ -0,0 +1,90 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.InjectionException;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.RequestScope;
+import dev.philipp.depen.ScopeStorage;
+import dev.philipp.depen.ThreadScope;
+
+public class ScopeTest {
+
+	@Test
+	public void testThreadScope() throws Exception {
+		ThreadScope threadScope = new ThreadScope();
+		Injector injector = new Injector();
+		injector.forClass(RequestData.class).provideScoped(RequestData.class, threadScope);
+		RequestData data = injector.inject(RequestData.class);
+		assertSame(data, injector.inject(RequestData.class));
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			assertNotSame(data, executor.submit(() -> injector.inject(RequestData.class)).get());
+		} finally {
+			executor.shutdown();
+		}
+		
+		threadScope.clear();
+		assertNotSame(data, injector.inject(RequestData.class));
+	}
+	
+	@Test
+	public void testRequestScope() {
+		RequestScope requestScope = new RequestScope();
+		Injector injector = new Injector();
+		injector.forClass(RequestData.class).provideScoped(RequestData.class, requestScope);
+		injector.provide(Handler.class);
+		RequestData first;
+		try (RequestScope.Activation request = requestScope.enter()) {
+			Handler handler = injector.inject(Handler.class);
+			first = handler.data;
+			assertSame(first, injector.inject(Handler.class).data);
+			assertSame(first, injector.inject(RequestData.class));
+		}
+		try (RequestScope.Activation request = requestScope.enter()) {
+			assertNotSame(first, injector.inject(RequestData.class));
+		}
+	}
+	
+	@Test(expected = InjectionException.class)
+	public void testRequestScopeNotActive() {
+		Injector injector = new Injector();
+		injector.forClass(RequestData.class).provideScoped(RequestData.class, new RequestScope());
+		injector.inject(RequestData.class);
+	}
+	
+	@Test
+	public void testRequestScopeOnOtherThread() throws Exception {
+		RequestScope requestScope = new RequestScope();
+		Injector injector = new Injector();
+		injector.forClass(RequestData.class).provideScoped(RequestData.class, requestScope);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (RequestScope.Activation request = requestScope.enter()) {
+			RequestData data = injector.inject(RequestData.class);
+			ScopeStorage storage = request.getStorage();
+			RequestData joined = executor.submit(() -> {
+				try (RequestScope.Activation join = requestScope.enter(storage)) {
+					return injector.inject(RequestData.class);
+				}
+			}).get();
+			assertSame(data, joined);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	public static class RequestData {
+	}
+	
+	public static class Handler {
+		@Inject RequestData data;
+	}
+}
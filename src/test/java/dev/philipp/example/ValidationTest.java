@@ -0,0 +1,163 @@
+package dev.philipp.example;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.philipp.depen.Inject;
+import dev.philipp.depen.Injector;
+import dev.philipp.depen.Provide;
+import dev.philipp.depen.ValidationException;
+
+public class ValidationTest {
+
+	@Test
+	public void testValidGraph() {
+		Injector injector = new Injector();
+		injector.forClass(BigDecimal.class).provideValue(BigDecimal.TEN);
+		injector.provide(Parent.class);
+		injector.provide(NeedsInjector.class);
+		injector.provide(OptionalUser.class);
+		injector.validate();
+	}
+	
+	@Test
+	public void testReportsAllMissingBindings() {
+		Injector injector = new Injector();
+		injector.provide(MissingTwo.class);
+		List<String> problems = this.validate(injector);
+		assertEquals(2, problems.size());
+		assertTrue(problems.get(0).contains("BigDecimal"));
+		assertTrue(problems.get(1).contains("StringBuilder"));
+	}
+	
+	@Test
+	public void testReportsCircles() {
+		Injector injector = new Injector();
+		injector.provide(A.class);
+		injector.provide(B.class);
+		injector.provide(C.class);
+		injector.provide(Self.class);
+		injector.provide(MissingTwo.class);
+		List<String> problems = this.validate(injector);
+		assertEquals(4, problems.size());
+		assertTrue(problems.stream().anyMatch(problem -> problem.contains("A -> B -> C -> A")
+				|| problem.contains("B -> C -> A -> B") || problem.contains("C -> A -> B -> C")));
+		assertTrue(problems.stream().anyMatch(problem -> problem.contains("Self -> Self")));
+	}
+	
+	@Test
+	public void testReportsInvalidConstructor() {
+		Injector injector = new Injector();
+		injector.provide(TwoConstructors.class);
+		assertEquals(1, this.validate(injector).size());
+	}
+	
+	@Test
+	public void testWarmUpCreatesSingletonsInOrder() {
+		Created.order.clear();
+		Injector injector = new Injector();
+		injector.forClass(Second.class).provideInstanceOf(Second.class);
+		injector.forClass(First.class).provideInstanceOf(First.class);
+		injector.warmUp();
+		assertEquals(2, Created.order.size());
+		assertEquals(First.class, Created.order.get(0));
+		assertEquals(Second.class, Created.order.get(1));
+		assertSame(injector.inject(First.class), injector.inject(Second.class).first);
+		assertEquals(2, Created.order.size());
+	}
+	
+	@Test(expected = ValidationException.class)
+	public void testWarmUpValidates() {
+		Injector injector = new Injector();
+		injector.forClass(MissingTwo.class).provideInstanceOf(MissingTwo.class);
+		injector.warmUp();
+	}
+	
+	private List<String> validate(Injector injector) {
+		try {
+			injector.validate();
+			fail();
+			return null;
+		} catch (ValidationException e) {
+			return e.getProblems();
+		}
+	}
+	
+	@Provide(Child.class)
+	public static class Parent {
+		@Inject Child child;
+		@Inject BigDecimal number;
+	}
+	
+	public static class Child {
+		@Inject Parent parent;
+	}
+	
+	public static class NeedsInjector {
+		public NeedsInjector(Injector injector) {
+		}
+	}
+	
+	public static class OptionalUser {
+		@Inject(optional = true) StringBuilder builder;
+	}
+	
+	public static class MissingTwo {
+		@Inject StringBuilder builder;
+		
+		public MissingTwo(BigDecimal number) {
+		}
+	}
+	
+	public static class A {
+		@Inject B b;
+	}
+	
+	public static class B {
+		public B(C c) {
+		}
+	}
+	
+	public static class C {
+		@Inject A a;
+	}
+	
+	public static class Self {
+		public Self(Self self) {
+		}
+	}
+	
+	public static class TwoConstructors {
+		public TwoConstructors(BigDecimal number) {
+		}
+		public TwoConstructors(StringBuilder builder) {
+		}
+	}
+	
+	static class Created {
+		static final List<Class<?>> order = new ArrayList<>();
+	}
+	
+	public static class First {
+		public First() {
+			Created.order.add(First.class);
+		}
+	}
+	
+	public static class Second {
+		final First first;
+		
+		public Second(First first) {
+			this.first = first;
+			Created.order.add(Second.class);
+		}
+	}
+}